@@ -0,0 +1,43 @@
+package com.dil.logicengine;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+
+/**
+ * Installs the global OpenTelemetry instance a benchmark runs against. Must be called before the engine and
+ * enhancers are created, since they resolve their tracer on construction.
+ */
+final class BenchmarkTracing {
+
+    /**
+     * {@code on}: every span sampled and exported to a discarding exporter.
+     * {@code off}: SDK installed but nothing sampled.
+     * {@code noop}: no SDK at all.
+     */
+    static void install(String mode) {
+        GlobalOpenTelemetry.resetForTest();
+        OpenTelemetry openTelemetry = switch (mode) {
+            case "on" -> sdk(Sampler.alwaysOn());
+            case "off" -> sdk(Sampler.alwaysOff());
+            case "noop" -> OpenTelemetry.noop();
+            default -> throw new IllegalArgumentException("Unknown tracing mode " + mode);
+        };
+        GlobalOpenTelemetry.set(openTelemetry);
+    }
+
+    private static OpenTelemetry sdk(Sampler sampler) {
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .setSampler(sampler)
+                .addSpanProcessor(SimpleSpanProcessor.create(SpanExporter.composite()))
+                .build();
+        return OpenTelemetrySdk.builder().setTracerProvider(tracerProvider).build();
+    }
+
+    private BenchmarkTracing() {
+    }
+}
@@ -0,0 +1,127 @@
+package com.dil.logicengine;
+
+import com.dil.logicengine.api.CompensatableAction;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.api.SimpleResponseBuilder;
+import com.dil.logicengine.config.TracingLevel;
+import com.dil.logicengine.config.LoggingProperties;
+import com.dil.logicengine.config.TracingProperties;
+import com.dil.logicengine.enhancer.ActionPipelineCompiler;
+import com.dil.logicengine.enhancer.EnhancerRegistry;
+import com.dil.logicengine.enhancer.LoggingEnhancer;
+import com.dil.logicengine.enhancer.TracingEnhancer;
+import com.dil.logicengine.journal.FlowJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per flow of {@link LogicEngine#executeActions} with the default enhancers, for growing flows and each
+ * tracing setup and level. {@code compensatedFlow} fails on the last action, so every other action is compensated;
+ * {@code forEach} fans the flow out with {@link LogicEngine#executeForEach}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogicEngineBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int actionCount;
+
+    @Param({"on", "off", "noop"})
+    public String tracing;
+
+    @Param({"ACTION", "ENGINE"})
+    public TracingLevel level;
+
+    private static final int FOR_EACH_REQUESTS = 256;
+
+    private final List<String> forEachRequests = Collections.nCopies(FOR_EACH_REQUESTS, "request");
+    private LogicEngine engine;
+    private List<LogicAction<String, ?>> flow;
+    private List<LogicAction<String, ?>> compensatedFlow;
+
+    @Setup
+    public void setup() {
+        BenchmarkTracing.install(tracing);
+        TracingProperties tracingProperties = new TracingProperties();
+        tracingProperties.setLevel(level);
+        engine = new LogicEngine(new ActionPipelineCompiler(
+                new EnhancerRegistry(List.of(
+                        new TracingEnhancer(tracingProperties), new LoggingEnhancer(new LoggingProperties())))),
+                tracingProperties, List.of(), FlowJournal.NOOP);
+
+        flow = new ArrayList<>(actionCount);
+        compensatedFlow = new ArrayList<>(actionCount);
+        for (int i = 0; i < actionCount; i++) {
+            flow.add(new Append());
+            compensatedFlow.add(i == actionCount - 1 ? new Fail() : new Reserve());
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> flow() {
+        return engine.executeActions("request", flow, new SimpleResponseBuilder<>());
+    }
+
+    /**
+     * {@link #flow} over {@value #FOR_EACH_REQUESTS} requests, one worker per core.
+     */
+    @Benchmark
+    public List<Map<String, Object>> forEach() {
+        return engine.executeForEach(forEachRequests, flow, SimpleResponseBuilder::new,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    @Benchmark
+    public Map<String, Object> compensatedFlow() {
+        return engine.executeActions("request", compensatedFlow, new SimpleResponseBuilder<>());
+    }
+
+    static class Append implements LogicAction<String, String> {
+        @Override
+        public String execute(String input) {
+            return input;
+        }
+    }
+
+    static class Reserve implements CompensatableAction<String, String> {
+        int compensations;
+
+        @Override
+        public String execute(String input) {
+            return input;
+        }
+
+        @Override
+        public void compensate(String request, String result) {
+            compensations++;
+        }
+    }
+
+    static class Fail implements LogicAction<String, String> {
+        private final IllegalStateException failure = new IllegalStateException("fail");
+
+        @Override
+        public String execute(String input) {
+            throw failure;
+        }
+    }
+}
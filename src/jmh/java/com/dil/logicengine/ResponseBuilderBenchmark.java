@@ -0,0 +1,95 @@
+package com.dil.logicengine;
+
+import com.dil.logicengine.api.FlowResults;
+import com.dil.logicengine.api.IndexedResponseBuilder;
+import com.dil.logicengine.api.JsonStreamingResponseBuilder;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.api.SimpleResponseBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collecting results into a {@link SimpleResponseBuilder}, an {@link IndexedResponseBuilder} and a
+ * {@link JsonStreamingResponseBuilder} (writing to a discarding stream), isolated from action execution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBuilderBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int actionCount;
+
+    private final Object result = "result";
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Benchmark
+    public Map<String, Object> simpleResponseBuilder() {
+        SimpleResponseBuilder<String> builder = new SimpleResponseBuilder<>();
+        for (int i = 0; i < actionCount; i++) {
+            builder.addResult(ACTION_TYPES[i % ACTION_TYPES.length], result);
+        }
+        return builder.build("request");
+    }
+
+    @Benchmark
+    public FlowResults indexedResponseBuilder() {
+        IndexedResponseBuilder<String> builder = new IndexedResponseBuilder<>(actionCount);
+        for (int i = 0; i < actionCount; i++) {
+            builder.addResult(i, ACTION_TYPES[i % ACTION_TYPES.length], result);
+        }
+        return builder.build("request");
+    }
+
+    @Benchmark
+    public JsonGenerator jsonStreamingResponseBuilder() throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(OutputStream.nullOutputStream());
+        JsonStreamingResponseBuilder<String> builder = new JsonStreamingResponseBuilder<>(generator);
+        for (int i = 0; i < actionCount; i++) {
+            builder.addResult(i, ACTION_TYPES[i % ACTION_TYPES.length], result);
+        }
+        builder.build("request");
+        return generator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static final Class<? extends LogicAction<String, ?>>[] ACTION_TYPES = new Class[]{
+            A.class, B.class, C.class, D.class, E.class
+    };
+
+    static class A implements LogicAction<String, String> {
+        public String execute(String input) {
+            return input;
+        }
+    }
+
+    static class B extends A {
+    }
+
+    static class C extends A {
+    }
+
+    static class D extends A {
+    }
+
+    static class E extends A {
+    }
+}
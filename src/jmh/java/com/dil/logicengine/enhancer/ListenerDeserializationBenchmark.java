@@ -0,0 +1,73 @@
+package com.dil.logicengine.enhancer;
+
+import com.dil.entity.Greeting;
+import com.dil.logicengine.serde.CachingAvroDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.reflect.ReflectData;
+import org.apache.avro.reflect.ReflectDatumWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-record payload decoding as done by the registrar for each {@code DeserialisationType}, on the raw
+ * record bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerDeserializationBenchmark {
+
+    private ObjectReader jsonReader;
+    private CachingAvroDeserializer avroDeserializer;
+    private byte[] json;
+    private byte[] avro;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Greeting greeting = new Greeting(42, "ada", "Hello ada");
+
+        jsonReader = objectMapper.readerFor(Greeting.class);
+        json = objectMapper.writeValueAsBytes(greeting);
+
+        avroDeserializer = new CachingAvroDeserializer();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new ReflectDatumWriter<>(ReflectData.get().getSchema(Greeting.class)).write(greeting, encoder);
+        encoder.flush();
+        avro = out.toByteArray();
+    }
+
+    @Benchmark
+    public Object json() throws Exception {
+        return jsonReader.readValue(json);
+    }
+
+    @Benchmark
+    public Object string() {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object avro() {
+        return avroDeserializer.deserialize(avro, Greeting.class);
+    }
+}
@@ -0,0 +1,63 @@
+package com.dil.logicengine.enhancer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-record dispatch cost of the registrar: reflective {@code Method.invoke} (the old path)
+ * versus the invoker bound once at startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerInvokerBenchmark {
+
+    private Listener bean;
+    private Method method;
+    private ListenerInvoker invoker;
+    private Object payload;
+
+    @Setup
+    public void setup() throws Exception {
+        bean = new Listener();
+        method = Listener.class.getDeclaredMethod("handle", String.class);
+        invoker = ListenerInvoker.bind(bean, method);
+        payload = "greeting";
+    }
+
+    @Benchmark
+    public void reflective(Blackhole bh) throws Exception {
+        method.setAccessible(true);
+        method.invoke(bean, payload);
+        bh.consume(bean.last);
+    }
+
+    @Benchmark
+    public void boundInvoker(Blackhole bh) {
+        invoker.invoke(payload);
+        bh.consume(bean.last);
+    }
+
+    static class Listener {
+        Object last;
+
+        private void handle(String event) {
+            last = event;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.dil.action;
 
+import com.dil.logicengine.annotations.CacheableAction;
 import com.dil.logicengine.api.BaseAction;
 import com.dil.service.GreeterService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
 
+@Component
+@CacheableAction(maxSize = 10_000, ttlMillis = 300_000)
 public class GreeterAction extends BaseAction<String, String> {
 
     @Override
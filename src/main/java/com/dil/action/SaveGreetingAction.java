@@ -1,20 +1,44 @@
 package com.dil.action;
 
-import com.dil.logicengine.api.DBAction;
+import com.dil.logicengine.api.BulkDBAction;
 import com.dil.entity.Greeting;
+import com.dil.logicengine.api.OutboxAction;
+import com.dil.logicengine.api.OutgoingMessage;
 import com.dil.repository.GreetingRepository;
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @RequiredArgsConstructor
-public class SaveGreetingAction implements DBAction<String, Greeting> {
+public class SaveGreetingAction implements BulkDBAction<String, Greeting>, OutboxAction<String, Greeting> {
 
     private final GreetingRepository repository;
 
     @Override
     public Greeting execute(String name) {
+        return repository.save(greetingFor(name));
+    }
+
+    @Override
+    public List<Greeting> executeAll(List<String> names) {
+        List<Greeting> greetings = new ArrayList<>(names.size());
+        for (String name : names) {
+            greetings.add(greetingFor(name));
+        }
+        // One flush; inserts go out as JDBC batches (hibernate.jdbc.batch_size)
+        return repository.saveAllAndFlush(greetings);
+    }
+
+    @Override
+    public List<OutgoingMessage> outgoing(String name, Greeting saved) {
+        return List.of(new OutgoingMessage("greeting.events", name, saved));
+    }
+
+    private static Greeting greetingFor(String name) {
         Greeting g = new Greeting();
         g.setName(name);
         g.setMessage("Hello " + name);
-        return repository.save(g);
+        return g;
     }
 }
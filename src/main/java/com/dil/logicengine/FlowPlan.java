@@ -0,0 +1,106 @@
+package com.dil.logicengine;
+
+import com.dil.logicengine.api.CompensatableAction;
+import com.dil.logicengine.api.FlowDefinition;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.enhancer.ActionPipeline;
+import com.dil.logicengine.enhancer.ActionPipelineCompiler;
+
+import java.util.List;
+
+/**
+ * An action sequence prepared for execution: action classes, compensation flags and the flow and span names
+ * are resolved once. Plans compiled from a {@link FlowDefinition} by {@link LogicEngine#compile} also hold
+ * their enhancer pipelines, so executing one does no per-request setup beyond a check of the compiler's
+ * generation; they are recompiled on first use after enhancers are registered later. Immutable and safe to
+ * share between threads.
+ * <p>
+ * The list-based engine methods run through an ad hoc plan that looks pipelines up per step.
+ */
+public final class FlowPlan<REQUEST> {
+
+    private final String name;
+    private final String spanName;
+    private final List<LogicAction<REQUEST, ?>> actions;
+    private final Class<? extends LogicAction<REQUEST, ?>>[] actionClasses;
+    private final boolean[] compensatable;
+    private final ActionPipelineCompiler pipelineCompiler;
+    // Null for ad hoc plans
+    private volatile Compiled compiled;
+
+    @SuppressWarnings("unchecked")
+    FlowPlan(String name,
+             String spanName,
+             List<LogicAction<REQUEST, ?>> actions,
+             ActionPipelineCompiler pipelineCompiler,
+             boolean compiled) {
+        this.name = name;
+        this.spanName = spanName;
+        this.actions = actions;
+        this.pipelineCompiler = pipelineCompiler;
+        int size = actions.size();
+        this.actionClasses = new Class[size];
+        this.compensatable = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            LogicAction<REQUEST, ?> action = actions.get(i);
+            actionClasses[i] = (Class<? extends LogicAction<REQUEST, ?>>) action.getClass();
+            compensatable[i] = action instanceof CompensatableAction;
+        }
+        if (compiled) {
+            this.compiled = compilePipelines();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return actionClasses.length;
+    }
+
+    public List<LogicAction<REQUEST, ?>> getActions() {
+        return actions;
+    }
+
+    String spanName() {
+        return spanName;
+    }
+
+    LogicAction<REQUEST, ?> action(int index) {
+        return actions.get(index);
+    }
+
+    Class<? extends LogicAction<REQUEST, ?>> actionClass(int index) {
+        return actionClasses[index];
+    }
+
+    boolean isCompensatable(int index) {
+        return compensatable[index];
+    }
+
+    ActionPipeline pipeline(int index) {
+        Compiled current = compiled;
+        if (current == null) {
+            return pipelineCompiler.pipelineFor(actionClasses[index]);
+        }
+        if (current.generation() != pipelineCompiler.generation()) {
+            current = compilePipelines();
+            compiled = current;
+        }
+        return current.pipelines()[index];
+    }
+
+    private Compiled compilePipelines() {
+        // Read first: a change while compiling leaves the plan a generation behind, so it compiles again
+        int generation = pipelineCompiler.generation();
+        ActionPipeline[] pipelines = new ActionPipeline[actionClasses.length];
+        for (int i = 0; i < pipelines.length; i++) {
+            pipelines[i] = pipelineCompiler.pipelineFor(actionClasses[i]);
+        }
+        return new Compiled(generation, pipelines);
+    }
+
+    private record Compiled(int generation, ActionPipeline[] pipelines) {
+    }
+}
@@ -2,116 +2,878 @@ package com.dil.logicengine;
 
 import com.dil.logicengine.api.*;
 import com.dil.logicengine.config.OtelConfiguration;
-import com.dil.logicengine.enhancer.TracingEnhancer;
+import com.dil.logicengine.config.TracingLevel;
+import com.dil.logicengine.config.TracingProperties;
+import com.dil.logicengine.enhancer.ActionPipeline;
+import com.dil.logicengine.enhancer.ActionPipelineCompiler;
+import com.dil.logicengine.journal.FlowJournal;
+import com.dil.logicengine.journal.RecoveredFlow;
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
-import org.springframework.beans.factory.annotation.Autowired;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import com.dil.logicengine.enhancer.LoggingEnhancer;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 @Component
+@RequiredArgsConstructor
 public class LogicEngine {
 
+    private static final AttributeKey<Long> ACTIONS_COUNT = AttributeKey.longKey("logic.engine.actions.count");
+    private static final AttributeKey<Long> REQUESTS_COUNT = AttributeKey.longKey("logic.engine.requests.count");
+    private static final AttributeKey<Long> REQUESTS_FAILED = AttributeKey.longKey("logic.engine.requests.failed");
+    private static final AttributeKey<Long> COMPENSATIONS_COUNT = AttributeKey.longKey("compensation.actions.count");
+    private static final AttributeKey<String> ENGINE_RESULT = AttributeKey.stringKey("logic.engine.result");
+
+    private static final String SEQUENTIAL_FLOW = "executeActions";
+    private static final String ASYNC_FLOW = "executeActionsAsync";
+    private static final String PARALLEL_FLOW = "executeActionsParallel";
+    private static final String BULK_FLOW = "executeBulk";
+    private static final String FOR_EACH_FLOW = "executeForEach";
+
     private final Tracer tracer = OtelConfiguration.getTracer();
+    private final ActionPipelineCompiler pipelineCompiler;
+    private final TracingProperties tracingProperties;
+    private final List<FlowListener> flowListeners;
+    private final FlowJournal flowJournal;
+
+    // DAG branches and executeForEach workers run on virtual threads; the wrapper carries the engine span over to them
+    private final ExecutorService parallelExecutor = Context.taskWrapping(Executors.newVirtualThreadPerTaskExecutor());
+
+    /**
+     * Prepares {@code definition} for repeated execution. Every action's pipeline is compiled here, so enhancer
+     * configuration problems surface when the plan is compiled, typically while the context starts.
+     */
+    public <REQUEST> FlowPlan<REQUEST> compile(FlowDefinition<REQUEST> definition) {
+        return new FlowPlan<>(definition.getName(), "Flow." + definition.getName(), definition.getActions(),
+                pipelineCompiler, true);
+    }
 
     public <REQUEST, RESPONSE> RESPONSE executeActions(
             REQUEST request,
             List<LogicAction<REQUEST, ?>> actions,
             ResponseBuilder<REQUEST, RESPONSE> responseBuilder) {
+        return executeActions(request,
+                new FlowPlan<>(SEQUENTIAL_FLOW, "LogicEngine.executeActions", actions, pipelineCompiler, false),
+                responseBuilder);
+    }
+
+    /**
+     * Runs a plan from {@link #compile} the way {@link #executeActions(Object, List, ResponseBuilder)} runs a list.
+     * Flow metrics and the engine span ({@code Flow.<name>}) carry the definition's name.
+     */
+    public <REQUEST, RESPONSE> RESPONSE executeActions(
+            REQUEST request,
+            FlowPlan<REQUEST> plan,
+            ResponseBuilder<REQUEST, RESPONSE> responseBuilder) {
+        return executeSequence(request, plan, responseBuilder, null);
+    }
+
+    /**
+     * Runs the actions a crash left undone in {@code flow} as part of that flow rather than as a new one: they are
+     * journaled under its id, from its first uncompleted index on, so a crash during recovery resumes where this
+     * run got to. The flow is not marked finished; if an action fails, the actions completed before the crash
+     * still need compensating.
+     */
+    public <REQUEST, RESPONSE> RESPONSE resumeActions(
+            RecoveredFlow flow,
+            REQUEST request,
+            List<LogicAction<REQUEST, ?>> remaining,
+            ResponseBuilder<REQUEST, RESPONSE> responseBuilder) {
+        return executeSequence(request,
+                new FlowPlan<>(SEQUENTIAL_FLOW, "LogicEngine.executeActions", remaining, pipelineCompiler, false),
+                responseBuilder, flow);
+    }
+
+    private <REQUEST, RESPONSE> RESPONSE executeSequence(
+            REQUEST request,
+            FlowPlan<REQUEST> plan,
+            ResponseBuilder<REQUEST, RESPONSE> responseBuilder,
+            RecoveredFlow resumed) {
 
         // Create a parent span for the entire logic engine execution
-        Span engineSpan = tracer.spanBuilder("LogicEngine.executeActions")
-                .setAttribute("logic.engine.actions.count", actions.size())
-                .startSpan();
+        Span engineSpan = startEngineSpan(plan.spanName(), plan.size());
+        FlowStart flowStart = flowStarted(plan.getName(), engineSpan);
+        boolean failed = true;
 
-        try (Scope engineScope = engineSpan.makeCurrent()) {
-            List<CompensationEntry<REQUEST>> completedCompensatableActions = new ArrayList<>();
+        try (Scope engineScope = flowStart.context().makeCurrent()) {
+            if (!runSequence(request, plan, responseBuilder, resumed)) {
+                engineSpan.setStatus(StatusCode.ERROR, "Action execution failed");
+                return responseBuilder.build(request);
+            }
 
-            for (int i = 0; i < actions.size(); i++) {
-                LogicAction<REQUEST, ?> action = actions.get(i);
-                @SuppressWarnings("unchecked")
-                Class<? extends LogicAction<REQUEST, ?>> actionClass =
-                        (Class<? extends LogicAction<REQUEST, ?>>) action.getClass();
+            failed = false;
+            markSuccess(engineSpan);
+            return responseBuilder.build(request);
 
-                // Create a span for each action execution
-                Span actionSpan = tracer.spanBuilder("Action." + actionClass.getSimpleName())
-                        .setAttribute("action.class", actionClass.getSimpleName())
-                        .setAttribute("action.index", i)
-                        .setAttribute("action.total", actions.size())
-                        .startSpan();
+        } catch (Exception e) {
+            markError(engineSpan, e);
+            throw e;
+        } finally {
+            engineSpan.end();
+            flowFinished(flowStart, failed);
+        }
+    }
 
-                try (Scope actionScope = actionSpan.makeCurrent()) {
-                    LogicAction<REQUEST, ?> enhanced = enhanceAction(action);
-                    Object result = enhanced.execute(request);
+    /**
+     * Runs the plan's actions in order for one request, reporting results to the builder. On failure the
+     * completed actions are compensated, the failure is reported and false is returned. A {@code resumed} flow
+     * is continued in the journal instead of starting a new one.
+     */
+    @SuppressWarnings("unchecked")
+    private <REQUEST> boolean runSequence(REQUEST request,
+                                          FlowPlan<REQUEST> plan,
+                                          ResponseBuilder<REQUEST, ?> responseBuilder,
+                                          RecoveredFlow resumed) {
+        long journalId = resumed == null ? flowJournal.flowStarted(request, plan.getActions()) : resumed.flowId();
+        int journalIndex = resumed == null ? 0 : resumed.completed().size();
+        try {
+            List<CompensationEntry<REQUEST>> completedCompensatableActions = new ArrayList<>();
 
-                    if (action instanceof CompensatableAction) {
+            for (int i = 0; i < plan.size(); i++) {
+                LogicAction<REQUEST, ?> action = plan.action(i);
+                Class<? extends LogicAction<REQUEST, ?>> actionClass = plan.actionClass(i);
+
+                try {
+                    Object result = runAction(action, plan.pipeline(i), request);
+                    flowJournal.actionCompleted(journalId, journalIndex + i, action, result);
+
+                    if (plan.isCompensatable(i)) {
                         completedCompensatableActions.add(new CompensationEntry<>(
                                 (CompensatableAction<REQUEST, Object>) action,
                                 result
                         ));
                     }
 
-                    responseBuilder.addResult(actionClass, result);
-                    actionSpan.setStatus(StatusCode.OK);
-                    actionSpan.setAttribute("action.result", "success");
+                    responseBuilder.addResult(i, actionClass, result);
 
                 } catch (Exception e) {
-                    actionSpan.recordException(e);
-                    actionSpan.setStatus(StatusCode.ERROR, e.getMessage());
-                    actionSpan.setAttribute("action.result", "error");
-
                     compensateActions(completedCompensatableActions, request);
-                    responseBuilder.handleException(actionClass, new ActionException(action.getClass(), e.getMessage(), e, false));
+                    responseBuilder.handleException(i, actionClass, actionException(actionClass, e));
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            if (resumed == null) {
+                flowJournal.flowFinished(journalId);
+            }
+        }
+    }
+
+    /**
+     * {@link #executeActions} bounded by a {@link FlowDeadline} of {@code deadline} from now. Once it has
+     * passed, the running action is cancelled, no further actions start and the completed ones are compensated.
+     */
+    public <REQUEST, RESPONSE> RESPONSE executeActions(
+            REQUEST request,
+            List<LogicAction<REQUEST, ?>> actions,
+            ResponseBuilder<REQUEST, RESPONSE> responseBuilder,
+            Duration deadline) {
+        try (Scope deadlineScope = FlowDeadline.within(deadline)) {
+            return executeActions(request, actions, responseBuilder);
+        }
+    }
 
-                    engineSpan.setStatus(StatusCode.ERROR, "Action execution failed");
-                    return responseBuilder.build(request);
-                } finally {
-                    actionSpan.end();
+    /**
+     * {@link #executeActions(Object, FlowPlan, ResponseBuilder)} bounded by a {@link FlowDeadline}.
+     */
+    public <REQUEST, RESPONSE> RESPONSE executeActions(
+            REQUEST request,
+            FlowPlan<REQUEST> plan,
+            ResponseBuilder<REQUEST, RESPONSE> responseBuilder,
+            Duration deadline) {
+        try (Scope deadlineScope = FlowDeadline.within(deadline)) {
+            return executeActions(request, plan, responseBuilder);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #executeActions}. Actions still run in list order, but an
+     * {@link AsyncLogicAction} releases the calling thread while it is pending and the flow continues on the
+     * thread that completes it. Plain actions run synchronously wherever the flow currently is, so sync and
+     * async actions can be mixed freely.
+     * <p>
+     * The engine span, the caller's MDC, compensation and response building behave as in the synchronous
+     * mode. The returned future completes with the built response, also when an action failed.
+     */
+    public <REQUEST, RESPONSE> CompletableFuture<RESPONSE> executeActionsAsync(
+            REQUEST request,
+            List<LogicAction<REQUEST, ?>> actions,
+            ResponseBuilder<REQUEST, RESPONSE> responseBuilder) {
+        return executeActionsAsync(request,
+                new FlowPlan<>(ASYNC_FLOW, "LogicEngine.executeActionsAsync", actions, pipelineCompiler, false),
+                responseBuilder);
+    }
+
+    /**
+     * Runs a plan from {@link #compile} the way {@link #executeActionsAsync(Object, List, ResponseBuilder)} runs a
+     * list.
+     */
+    public <REQUEST, RESPONSE> CompletableFuture<RESPONSE> executeActionsAsync(
+            REQUEST request,
+            FlowPlan<REQUEST> plan,
+            ResponseBuilder<REQUEST, RESPONSE> responseBuilder) {
+
+        Span engineSpan = startEngineSpan(plan.spanName(), plan.size());
+        FlowStart flowStart = flowStarted(plan.getName(), engineSpan);
+        AsyncFlow<REQUEST, RESPONSE> flow = new AsyncFlow<>(request, plan, responseBuilder, engineSpan,
+                flowStart.context(), MDC.getCopyOfContextMap(),
+                flowJournal.flowStarted(request, plan.getActions()));
+
+        CompletableFuture<RESPONSE> response;
+        try {
+            response = runAsyncStep(flow, 0);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((result, error) -> {
+            if (error != null) {
+                markError(engineSpan, error);
+            }
+            flowJournal.flowFinished(flow.journalId);
+            engineSpan.end();
+            flowFinished(flowStart, error != null || flow.failed);
+        });
+    }
+
+    /**
+     * {@link #executeActionsAsync} bounded by a {@link FlowDeadline} of {@code deadline} from now.
+     */
+    public <REQUEST, RESPONSE> CompletableFuture<RESPONSE> executeActionsAsync(
+            REQUEST request,
+            List<LogicAction<REQUEST, ?>> actions,
+            ResponseBuilder<REQUEST, RESPONSE> responseBuilder,
+            Duration deadline) {
+        try (Scope deadlineScope = FlowDeadline.within(deadline)) {
+            return executeActionsAsync(request, actions, responseBuilder);
+        }
+    }
+
+    /**
+     * {@link #executeActionsAsync(Object, FlowPlan, ResponseBuilder)} bounded by a {@link FlowDeadline}.
+     */
+    public <REQUEST, RESPONSE> CompletableFuture<RESPONSE> executeActionsAsync(
+            REQUEST request,
+            FlowPlan<REQUEST> plan,
+            ResponseBuilder<REQUEST, RESPONSE> responseBuilder,
+            Duration deadline) {
+        try (Scope deadlineScope = FlowDeadline.within(deadline)) {
+            return executeActionsAsync(request, plan, responseBuilder);
+        }
+    }
+
+    private <REQUEST, RESPONSE> CompletableFuture<RESPONSE> runAsyncStep(AsyncFlow<REQUEST, RESPONSE> flow, int index) {
+        Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+        restoreMdc(flow.mdc);
+        try (Scope engineScope = flow.context.makeCurrent()) {
+            if (index == flow.plan.size()) {
+                markSuccess(flow.engineSpan);
+                return CompletableFuture.completedFuture(flow.responseBuilder.build(flow.request));
+            }
+
+            LogicAction<REQUEST, ?> action = flow.plan.action(index);
+
+            CompletionStage<Object> stage;
+            try {
+                checkDeadline(action);
+                @SuppressWarnings("unchecked")
+                LogicAction<Object, Object> target = (LogicAction<Object, Object>) action;
+                stage = flow.plan.pipeline(index).executeAsync(target, flow.request);
+            } catch (RuntimeException e) {
+                stage = CompletableFuture.failedFuture(e);
+            }
+
+            return stage.toCompletableFuture()
+                    .handle((result, error) -> completeAsyncStep(flow, index, result, error))
+                    .thenCompose(next -> next);
+        } finally {
+            restoreMdc(previousMdc);
+        }
+    }
+
+    private <REQUEST, RESPONSE> CompletableFuture<RESPONSE> completeAsyncStep(AsyncFlow<REQUEST, RESPONSE> flow,
+                                                                              int index,
+                                                                              Object result,
+                                                                              Throwable error) {
+        LogicAction<REQUEST, ?> action = flow.plan.action(index);
+        Class<? extends LogicAction<REQUEST, ?>> actionClass = flow.plan.actionClass(index);
+
+        if (error == null) {
+            flowJournal.actionCompleted(flow.journalId, index, action, result);
+            try (Scope engineScope = flow.context.makeCurrent()) {
+                recordResult(index, action, actionClass, result, flow.completedCompensatableActions, flow.responseBuilder);
+            }
+            return runAsyncStep(flow, index + 1);
+        }
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+        restoreMdc(flow.mdc);
+        try (Scope engineScope = flow.context.makeCurrent()) {
+            Exception exception = cause instanceof Exception e ? e : new RuntimeException(cause);
+            flow.failed = true;
+            failRequest(index, actionClass, exception, flow.request, flow.completedCompensatableActions, flow.responseBuilder);
+            flow.engineSpan.setStatus(StatusCode.ERROR, "Action execution failed");
+            return CompletableFuture.completedFuture(flow.responseBuilder.build(flow.request));
+        } finally {
+            restoreMdc(previousMdc);
+        }
+    }
+
+    private static void restoreMdc(Map<String, String> mdc) {
+        if (mdc == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(mdc);
+        }
+    }
+
+    /**
+     * Runs the actions as a DAG instead of in list order. Actions implementing {@link DependentAction}
+     * start once all of their dependencies have completed; every other action is a root and starts
+     * immediately. Independent branches run concurrently on virtual threads.
+     * <p>
+     * On failure no further actions are started, running ones are allowed to finish, and the completed
+     * {@link CompensatableAction}s are compensated in reverse completion order.
+     */
+    public <REQUEST, RESPONSE> RESPONSE executeActionsParallel(
+            REQUEST request,
+            List<LogicAction<REQUEST, ?>> actions,
+            ResponseBuilder<REQUEST, RESPONSE> responseBuilder) {
+
+        int[][] dependencies = resolveDependencies(actions);
+
+        Span engineSpan = startEngineSpan("LogicEngine.executeActionsParallel", actions.size());
+        FlowStart flowStart = flowStarted(PARALLEL_FLOW, engineSpan);
+        boolean flowFailed = true;
+
+        try (Scope engineScope = flowStart.context().makeCurrent()) {
+            List<CompensationEntry<REQUEST>> completedCompensatableActions = new ArrayList<>();
+            Map<Class<?>, Object> results = new HashMap<>();
+            AtomicReference<ActionFailure<REQUEST>> failure = new AtomicReference<>();
+
+            @SuppressWarnings("unchecked")
+            CompletableFuture<Void>[] futures = new CompletableFuture[actions.size()];
+            for (int i : topologicalOrder(dependencies)) {
+                int index = i;
+                Runnable task = () -> runNode(request, actions, index, results,
+                        completedCompensatableActions, failure, responseBuilder);
+
+                int[] deps = dependencies[i];
+                if (deps.length == 0) {
+                    futures[i] = CompletableFuture.runAsync(task, parallelExecutor);
+                } else {
+                    CompletableFuture<?>[] upstream = new CompletableFuture[deps.length];
+                    for (int d = 0; d < deps.length; d++) {
+                        upstream[d] = futures[deps[d]];
+                    }
+                    futures[i] = CompletableFuture.allOf(upstream).thenRunAsync(task, parallelExecutor);
                 }
             }
 
-            engineSpan.setStatus(StatusCode.OK);
-            engineSpan.setAttribute("logic.engine.result", "success");
+            // Wait for every branch to settle; failed or skipped branches are reported through `failure`
+            CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+
+            ActionFailure<REQUEST> failed = failure.get();
+            if (failed != null) {
+                compensateActions(completedCompensatableActions, request);
+                responseBuilder.handleException(failed.index(), failed.actionClass(),
+                        actionException(failed.actionClass(), failed.cause()));
+
+                engineSpan.setStatus(StatusCode.ERROR, "Action execution failed");
+                return responseBuilder.build(request);
+            }
+
+            flowFailed = false;
+            markSuccess(engineSpan);
             return responseBuilder.build(request);
 
         } catch (Exception e) {
-            engineSpan.recordException(e);
-            engineSpan.setStatus(StatusCode.ERROR, e.getMessage());
+            markError(engineSpan, e);
             throw e;
         } finally {
             engineSpan.end();
+            flowFinished(flowStart, flowFailed);
         }
     }
 
+    /**
+     * Runs the same actions for every request, up to {@code parallelism} requests at a time on virtual threads.
+     * Each request runs and fails as in {@link #executeActions}: with its own response builder, compensating
+     * only its own completed actions, while the others carry on. Responses are returned in request order.
+     * <p>
+     * All requests share one engine span and one flow measurement. Actions are shared between threads, so they
+     * must be stateless.
+     */
+    public <REQUEST, RESPONSE> List<RESPONSE> executeForEach(
+            List<REQUEST> requests,
+            List<LogicAction<REQUEST, ?>> actions,
+            Supplier<? extends ResponseBuilder<REQUEST, RESPONSE>> responseBuilders,
+            int parallelism) {
+        return executeForEach(requests,
+                new FlowPlan<>(FOR_EACH_FLOW, "LogicEngine.executeForEach", actions, pipelineCompiler, false),
+                responseBuilders, parallelism);
+    }
+
+    /**
+     * {@link #executeForEach(List, List, Supplier, int)} for a plan from {@link #compile}.
+     */
+    public <REQUEST, RESPONSE> List<RESPONSE> executeForEach(
+            List<REQUEST> requests,
+            FlowPlan<REQUEST> plan,
+            Supplier<? extends ResponseBuilder<REQUEST, RESPONSE>> responseBuilders,
+            int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, was " + parallelism);
+        }
+
+        Span engineSpan = startEngineSpan(plan.spanName(), plan.size());
+        if (engineSpan.isRecording()) {
+            engineSpan.setAttribute(REQUESTS_COUNT, requests.size());
+        }
+        FlowStart flowStart = flowStarted(plan.getName(), engineSpan);
+        boolean flowFailed = true;
+
+        try (Scope engineScope = flowStart.context().makeCurrent()) {
+            int size = requests.size();
+            Object[] responses = new Object[size];
+            AtomicInteger failures = new AtomicInteger();
+            AtomicInteger nextRequest = new AtomicInteger();
+
+            // A fixed number of workers pulling requests, rather than a task per request, caps the concurrency
+            int workers = Math.min(parallelism, size);
+            CompletableFuture<?>[] futures = new CompletableFuture[workers];
+            for (int w = 0; w < workers; w++) {
+                futures[w] = CompletableFuture.runAsync(() -> {
+                    for (int r = nextRequest.getAndIncrement(); r < size; r = nextRequest.getAndIncrement()) {
+                        REQUEST request = requests.get(r);
+                        ResponseBuilder<REQUEST, RESPONSE> responseBuilder = responseBuilders.get();
+                        if (!runSequence(request, plan, responseBuilder, null)) {
+                            failures.incrementAndGet();
+                        }
+                        responses[r] = responseBuilder.build(request);
+                    }
+                }, parallelExecutor);
+            }
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+
+            int failed = failures.get();
+            flowFailed = failed > 0;
+            if (failed == 0) {
+                markSuccess(engineSpan);
+            } else if (engineSpan.isRecording()) {
+                engineSpan.setAttribute(REQUESTS_FAILED, failed);
+                engineSpan.setStatus(StatusCode.ERROR, failed + " requests failed");
+            }
+
+            @SuppressWarnings("unchecked")
+            List<RESPONSE> gathered = (List<RESPONSE>) Arrays.asList(responses);
+            return gathered;
+
+        } catch (Exception e) {
+            markError(engineSpan, e);
+            throw e;
+        } finally {
+            engineSpan.end();
+            flowFinished(flowStart, flowFailed);
+        }
+    }
+
+    /**
+     * Runs the same actions for many requests at once, step by step. A {@link BulkDBAction} step is executed
+     * once for all requests still alive (one JDBC batch and flush instead of a round trip per request); any
+     * other step runs per request. Each request has its own response builder and compensation: a failing
+     * request is compensated and dropped from later steps, while a failing bulk step fails every request in it.
+     * Responses are returned in request order.
+     */
+    public <REQUEST, RESPONSE> List<RESPONSE> executeBulk(
+            List<REQUEST> requests,
+            List<LogicAction<REQUEST, ?>> actions,
+            Supplier<? extends ResponseBuilder<REQUEST, RESPONSE>> responseBuilders) {
+
+        Span engineSpan = startEngineSpan("LogicEngine.executeBulk", actions.size());
+        if (engineSpan.isRecording()) {
+            engineSpan.setAttribute(REQUESTS_COUNT, requests.size());
+        }
+        FlowStart flowStart = flowStarted(BULK_FLOW, engineSpan);
+        boolean flowFailed = true;
+
+        try (Scope engineScope = flowStart.context().makeCurrent()) {
+            int size = requests.size();
+            List<ResponseBuilder<REQUEST, RESPONSE>> builders = new ArrayList<>(size);
+            List<List<CompensationEntry<REQUEST>>> compensations = new ArrayList<>(size);
+            boolean[] failed = new boolean[size];
+            for (int r = 0; r < size; r++) {
+                builders.add(responseBuilders.get());
+                compensations.add(new ArrayList<>());
+            }
+
+            for (int i = 0; i < actions.size(); i++) {
+                LogicAction<REQUEST, ?> action = actions.get(i);
+                @SuppressWarnings("unchecked")
+                Class<? extends LogicAction<REQUEST, ?>> actionClass =
+                        (Class<? extends LogicAction<REQUEST, ?>>) action.getClass();
+
+                List<Integer> alive = new ArrayList<>(size);
+                for (int r = 0; r < size; r++) {
+                    if (!failed[r]) {
+                        alive.add(r);
+                    }
+                }
+                if (alive.isEmpty()) {
+                    break;
+                }
+
+                if (action instanceof BulkDBAction) {
+                    List<REQUEST> inputs = new ArrayList<>(alive.size());
+                    for (int r : alive) {
+                        inputs.add(requests.get(r));
+                    }
+                    try {
+                        List<?> results = (List<?>) runAction(action, new BulkRequest<>(inputs));
+                        if (results == null || results.size() != inputs.size()) {
+                            throw new IllegalStateException(actionClass.getSimpleName() + " returned "
+                                    + (results == null ? "no" : results.size()) + " results for " + inputs.size() + " inputs");
+                        }
+                        for (int k = 0; k < alive.size(); k++) {
+                            recordResult(i, action, actionClass, results.get(k),
+                                    compensations.get(alive.get(k)), builders.get(alive.get(k)));
+                        }
+                    } catch (Exception e) {
+                        for (int r : alive) {
+                            failRequest(i, actionClass, e, requests.get(r), compensations.get(r), builders.get(r));
+                            failed[r] = true;
+                        }
+                    }
+                } else {
+                    for (int r : alive) {
+                        try {
+                            Object result = runAction(action, requests.get(r));
+                            recordResult(i, action, actionClass, result, compensations.get(r), builders.get(r));
+                        } catch (Exception e) {
+                            failRequest(i, actionClass, e, requests.get(r), compensations.get(r), builders.get(r));
+                            failed[r] = true;
+                        }
+                    }
+                }
+            }
+
+            List<RESPONSE> responses = new ArrayList<>(size);
+            int failures = 0;
+            for (int r = 0; r < size; r++) {
+                responses.add(builders.get(r).build(requests.get(r)));
+                if (failed[r]) {
+                    failures++;
+                }
+            }
+
+            flowFailed = failures > 0;
+            if (failures == 0) {
+                markSuccess(engineSpan);
+            } else if (engineSpan.isRecording()) {
+                engineSpan.setAttribute(REQUESTS_FAILED, failures);
+                engineSpan.setStatus(StatusCode.ERROR, failures + " requests failed");
+            }
+            return responses;
+
+        } catch (Exception e) {
+            markError(engineSpan, e);
+            throw e;
+        } finally {
+            engineSpan.end();
+            flowFinished(flowStart, flowFailed);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <REQUEST> void recordResult(int index,
+                                        LogicAction<REQUEST, ?> action,
+                                        Class<? extends LogicAction<REQUEST, ?>> actionClass,
+                                        Object result,
+                                        List<CompensationEntry<REQUEST>> completedCompensatableActions,
+                                        ResponseBuilder<REQUEST, ?> responseBuilder) {
+        if (action instanceof CompensatableAction) {
+            completedCompensatableActions.add(new CompensationEntry<>(
+                    (CompensatableAction<REQUEST, Object>) action,
+                    result
+            ));
+        }
+        responseBuilder.addResult(index, actionClass, result);
+    }
+
+    private <REQUEST> void failRequest(int index,
+                                       Class<? extends LogicAction<REQUEST, ?>> actionClass,
+                                       Exception e,
+                                       REQUEST request,
+                                       List<CompensationEntry<REQUEST>> completedCompensatableActions,
+                                       ResponseBuilder<REQUEST, ?> responseBuilder) {
+        compensateActions(completedCompensatableActions, request);
+        responseBuilder.handleException(index, actionClass, actionException(actionClass, e));
+    }
+
+    /**
+     * Failure reported to the response builder. It stays retryable if the action (or the retry enhancer, once
+     * retries were exhausted) said so, so callers can decide to redeliver the request later.
+     */
+    private static ActionException actionException(Class<?> actionClass, Exception e) {
+        boolean retryable = e instanceof ActionException actionException && actionException.isRetryable();
+        return new ActionException(actionClass, e.getMessage(), e, retryable);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <REQUEST> void runNode(REQUEST request,
+                                   List<LogicAction<REQUEST, ?>> actions,
+                                   int index,
+                                   Map<Class<?>, Object> results,
+                                   List<CompensationEntry<REQUEST>> completedCompensatableActions,
+                                   AtomicReference<ActionFailure<REQUEST>> failure,
+                                   ResponseBuilder<REQUEST, ?> responseBuilder) {
+        if (failure.get() != null) {
+            throw new CancellationException("Flow already failed");
+        }
+
+        LogicAction<REQUEST, ?> action = actions.get(index);
+        Class<? extends LogicAction<REQUEST, ?>> actionClass =
+                (Class<? extends LogicAction<REQUEST, ?>>) action.getClass();
+
+        ActionResults upstream = ActionResults.empty();
+        if (action instanceof DependentAction) {
+            synchronized (results) {
+                upstream = new ActionResults(Map.copyOf(results));
+            }
+        }
+
+        Object result;
+        try (Scope resultsScope = upstream.makeCurrent()) {
+            result = runAction(action, request);
+        } catch (Exception e) {
+            failure.compareAndSet(null, new ActionFailure<>(index, actionClass, e));
+            throw new CompletionException(e);
+        }
+
+        synchronized (results) {
+            if (result != null) {
+                results.put(actionClass, result);
+            }
+            if (action instanceof CompensatableAction) {
+                completedCompensatableActions.add(new CompensationEntry<>(
+                        (CompensatableAction<REQUEST, Object>) action,
+                        result
+                ));
+            }
+        }
+        synchronized (responseBuilder) {
+            responseBuilder.addResult(index, actionClass, result);
+        }
+    }
+
+    /**
+     * Runs a single action through its compiled enhancer pipeline. The per-action span, if any, is opened by
+     * the tracing enhancer. {@code input} is the request, or a {@link BulkRequest} for a bulk step.
+     */
+    private Object runAction(LogicAction<?, ?> action, Object input) {
+        return runAction(action, pipelineCompiler.pipelineFor(action.getClass()), input);
+    }
+
+    private Object runAction(LogicAction<?, ?> action, ActionPipeline pipeline, Object input) {
+        checkDeadline(action);
+        @SuppressWarnings("unchecked")
+        LogicAction<Object, Object> target = (LogicAction<Object, Object>) action;
+        return pipeline.execute(target, input);
+    }
+
+    /**
+     * Fails the action without running it once the flow deadline has passed, so the rest of the flow is
+     * skipped and compensated.
+     */
+    private static void checkDeadline(LogicAction<?, ?> action) {
+        if (FlowDeadline.currentIsExpired()) {
+            throw new ActionTimeoutException(action.getClass(),
+                    "Flow deadline passed before " + action.getClass().getSimpleName() + " started");
+        }
+    }
+
+    /**
+     * Starts an engine-level span, or returns the invalid span when the tracing level is {@link TracingLevel#OFF}.
+     * Callers use the span unconditionally; everything beyond status goes behind {@link Span#isRecording()}.
+     */
+    private Span startEngineSpan(String spanName, int actionCount) {
+        if (!tracingProperties.getLevel().traces(TracingLevel.ENGINE)) {
+            return Span.getInvalid();
+        }
+        Span span = tracer.spanBuilder(spanName).startSpan();
+        if (span.isRecording()) {
+            span.setAttribute(ACTIONS_COUNT, actionCount);
+        }
+        return span;
+    }
+
+    /**
+     * Notifies listeners and builds the context the flow's actions run in: the engine span plus whatever
+     * listeners {@link FlowListener#attach attach}.
+     */
+    private FlowStart flowStarted(String flow, Span engineSpan) {
+        Context context = Context.current().with(engineSpan);
+        for (FlowListener listener : flowListeners) {
+            listener.flowStarted(flow);
+            context = listener.attach(flow, context);
+        }
+        return new FlowStart(flow, context, System.nanoTime());
+    }
+
+    private void flowFinished(FlowStart flowStart, boolean failed) {
+        if (flowListeners.isEmpty()) {
+            return;
+        }
+        long duration = System.nanoTime() - flowStart.started();
+        for (FlowListener listener : flowListeners) {
+            listener.flowFinished(flowStart.flow(), duration, failed, flowStart.context());
+        }
+    }
+
+    private static void markSuccess(Span span) {
+        if (span.isRecording()) {
+            span.setStatus(StatusCode.OK);
+            span.setAttribute(ENGINE_RESULT, "success");
+        }
+    }
+
+    private static void markError(Span span, Throwable e) {
+        if (span.isRecording()) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * Maps every action to the indexes of the actions it depends on, rejecting unknown or
+     * ambiguous dependencies.
+     */
+    private <REQUEST> int[][] resolveDependencies(List<LogicAction<REQUEST, ?>> actions) {
+        Map<Class<?>, Integer> indexByClass = new HashMap<>();
+        for (int i = 0; i < actions.size(); i++) {
+            if (indexByClass.put(actions.get(i).getClass(), i) != null) {
+                throw new IllegalArgumentException("Action " + actions.get(i).getClass().getSimpleName()
+                        + " appears more than once; dependencies would be ambiguous");
+            }
+        }
+
+        int[][] dependencies = new int[actions.size()][];
+        for (int i = 0; i < actions.size(); i++) {
+            if (actions.get(i) instanceof DependentAction<REQUEST, ?> dependent) {
+                List<Class<? extends LogicAction<REQUEST, ?>>> dependsOn = dependent.dependsOn();
+                dependencies[i] = new int[dependsOn.size()];
+                for (int d = 0; d < dependsOn.size(); d++) {
+                    Integer dependency = indexByClass.get(dependsOn.get(d));
+                    if (dependency == null) {
+                        throw new IllegalArgumentException("Action " + actions.get(i).getClass().getSimpleName()
+                                + " depends on " + dependsOn.get(d).getSimpleName() + " which is not part of the flow");
+                    }
+                    dependencies[i][d] = dependency;
+                }
+            } else {
+                dependencies[i] = new int[0];
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Kahn's algorithm; fails on cycles.
+     */
+    private int[] topologicalOrder(int[][] dependencies) {
+        int n = dependencies.length;
+        int[] pending = new int[n];
+        List<List<Integer>> dependents = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; i++) {
+            pending[i] = dependencies[i].length;
+            for (int dependency : dependencies[i]) {
+                dependents.get(dependency).add(i);
+            }
+        }
+
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (pending[i] == 0) {
+                order[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            for (int dependent : dependents.get(order[head++])) {
+                if (--pending[dependent] == 0) {
+                    order[tail++] = dependent;
+                }
+            }
+        }
+        if (tail != n) {
+            throw new IllegalArgumentException("Action dependencies contain a cycle");
+        }
+        return order;
+    }
+
     private <REQUEST> void compensateActions(List<CompensationEntry<REQUEST>> completedActions, REQUEST request) {
         if (completedActions.isEmpty()) {
             return;
         }
 
-        Span compensationSpan = tracer.spanBuilder("LogicEngine.compensateActions")
-                .setAttribute("compensation.actions.count", completedActions.size())
-                .startSpan();
+        Span compensationSpan = tracingProperties.getLevel().traces(TracingLevel.ENGINE)
+                ? tracer.spanBuilder("LogicEngine.compensateActions").startSpan()
+                : Span.getInvalid();
+        if (compensationSpan.isRecording()) {
+            compensationSpan.setAttribute(COMPENSATIONS_COUNT, completedActions.size());
+        }
+
+        for (FlowListener listener : flowListeners) {
+            listener.compensationStarted(completedActions.size());
+        }
 
         try (Scope scope = compensationSpan.makeCurrent()) {
             for (int i = completedActions.size() - 1; i >= 0; i--) {
                 CompensationEntry<REQUEST> entry = completedActions.get(i);
                 try {
                     entry.action.compensate(request, entry.result);
-                } catch (Exception ignored) {
-                    // log if needed
+                } catch (Exception e) {
+                    // Keep compensating the rest; the failure is only reported
+                    for (FlowListener listener : flowListeners) {
+                        listener.compensationFailed(entry.action.getClass(), e);
+                    }
                 }
             }
             compensationSpan.setStatus(StatusCode.OK);
         } catch (Exception e) {
-            compensationSpan.recordException(e);
-            compensationSpan.setStatus(StatusCode.ERROR, e.getMessage());
+            markError(compensationSpan, e);
         } finally {
             compensationSpan.end();
         }
@@ -127,10 +889,51 @@ public class LogicEngine {
         }
     }
 
+    /**
+     * State of one {@link #executeActionsAsync} run as it hops between threads.
+     */
+    private static class AsyncFlow<REQUEST, RESPONSE> {
+        final REQUEST request;
+        final FlowPlan<REQUEST> plan;
+        final ResponseBuilder<REQUEST, RESPONSE> responseBuilder;
+        final Span engineSpan;
+        final Context context;
+        final Map<String, String> mdc;
+        final long journalId;
+        final List<CompensationEntry<REQUEST>> completedCompensatableActions = new ArrayList<>();
+        boolean failed;
+
+        AsyncFlow(REQUEST request,
+                  FlowPlan<REQUEST> plan,
+                  ResponseBuilder<REQUEST, RESPONSE> responseBuilder,
+                  Span engineSpan,
+                  Context context,
+                  Map<String, String> mdc,
+                  long journalId) {
+            this.request = request;
+            this.plan = plan;
+            this.responseBuilder = responseBuilder;
+            this.engineSpan = engineSpan;
+            this.context = context;
+            this.mdc = mdc;
+            this.journalId = journalId;
+        }
+    }
+
+    private record FlowStart(String flow, Context context, long started) {
+    }
+
+    private record ActionFailure<REQUEST>(int index, Class<? extends LogicAction<REQUEST, ?>> actionClass, Exception cause) {
+    }
+
+    /**
+     * Returns the action wrapped in its compiled enhancer pipeline, for callers that run actions
+     * outside the engine. The engine itself executes the cached pipelines directly.
+     */
+    @SuppressWarnings("unchecked")
     public <REQUEST, RESULT> LogicAction<REQUEST, RESULT> enhanceAction(LogicAction<REQUEST, RESULT> action) {
-        LogicAction<REQUEST, RESULT> enhanced = action;
-        enhanced = new LoggingEnhancer<>(enhanced);
-        enhanced = new TracingEnhancer<>(enhanced, tracer);
-        return enhanced;
+        ActionPipeline pipeline = pipelineCompiler.pipelineFor(action.getClass());
+        LogicAction<Object, Object> target = (LogicAction<Object, Object>) action;
+        return input -> (RESULT) pipeline.execute(target, input);
     }
-}
\ No newline at end of file
+}
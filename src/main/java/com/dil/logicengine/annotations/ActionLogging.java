@@ -0,0 +1,17 @@
+package com.dil.logicengine.annotations;
+
+import org.springframework.boot.logging.LogLevel;
+
+import java.lang.annotation.*;
+
+/**
+ * Sets the level of the entering/exiting lines the logging enhancer writes around an action, e.g.
+ * {@code OFF} for hot actions. {@code logicengine.logging.actions.<SimpleName>} overrides it.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ActionLogging {
+
+    LogLevel value();
+}
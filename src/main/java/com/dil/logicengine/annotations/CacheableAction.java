@@ -0,0 +1,23 @@
+package com.dil.logicengine.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks an action whose result depends only on its input, so results can be reused for equal inputs.
+ * The input is the cache key and must implement {@code equals}/{@code hashCode}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheableAction {
+
+    /**
+     * Maximum number of cached results; least recently used entries are evicted first.
+     */
+    int maxSize() default 1000;
+
+    /**
+     * Time in milliseconds after which a cached result is no longer used.
+     */
+    long ttlMillis() default 60_000;
+}
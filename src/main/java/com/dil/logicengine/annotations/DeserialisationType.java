@@ -2,7 +2,7 @@ package com.dil.logicengine.annotations;
 
 public enum DeserialisationType {
     JSON,
-  //  AVRO,
+    AVRO,
     STRING,
-   // CUSTOM
-}
\ No newline at end of file
+    CUSTOM
+}
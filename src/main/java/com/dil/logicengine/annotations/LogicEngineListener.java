@@ -1,5 +1,7 @@
 package com.dil.logicengine.annotations;
 
+import com.dil.logicengine.api.CustomDeserializer;
+
 import java.lang.annotation.*;
 
 @Target(ElementType.METHOD)
@@ -10,4 +12,64 @@ public @interface LogicEngineListener {
     String groupId();
     Class<?> payloadType();
     DeserialisationType deserialization() default DeserialisationType.JSON;
-}
\ No newline at end of file
+
+    /**
+     * Bean type used for {@link DeserialisationType#CUSTOM}. Defaults to the single {@code CustomDeserializer}
+     * bean in the context.
+     */
+    Class<? extends CustomDeserializer> customDeserializer() default CustomDeserializer.class;
+
+    /**
+     * Consume whole polls instead of single records. A method taking a {@code List<payloadType>} is invoked
+     * once per batch; a method taking a single payload is invoked per record, under one span per batch.
+     */
+    boolean batch() default false;
+
+    /**
+     * Maximum records per batch ({@code max.poll.records}). Only used when {@link #batch()} is set.
+     */
+    int batchSize() default 500;
+
+    /**
+     * Maximum time in milliseconds the broker waits to fill a fetch ({@code fetch.max.wait.ms}).
+     * Only used when {@link #batch()} is set.
+     */
+    long maxWait() default 500;
+
+    /**
+     * How records are scheduled once polled. Ignored in {@link #batch()} mode.
+     */
+    ProcessingMode processing() default ProcessingMode.SEQUENTIAL;
+
+    /**
+     * Number of consumers (container threads) for the listener.
+     */
+    int concurrency() default 1;
+
+    /**
+     * Upper bound on records being processed concurrently per listener when {@link #processing()} is not
+     * {@link ProcessingMode#SEQUENTIAL}. Polling blocks while the limit is reached.
+     */
+    int maxInFlight() default 256;
+
+    /**
+     * Flow deadline in milliseconds for each invocation (each batch in {@link #batch()} mode). The deadline is
+     * cooperative: remaining actions are skipped once it has passed, running ones are not interrupted. The
+     * default of 0 sets none; -1 derives it from {@code max.poll.interval.ms}, so that a poll's records finish
+     * before the consumer is evicted from the group.
+     */
+    long deadline() default 0;
+
+    /**
+     * Delays in milliseconds of the retry topics a failed record passes through, in order:
+     * {@code <topic>-retry-0}, {@code <topic>-retry-1}, ... Each retry topic has its own container that holds a
+     * record back until its delay has passed without blocking the main topic. Empty: failures are not retried.
+     */
+    long[] retryDelays() default {};
+
+    /**
+     * Publish records that failed every retry, or failed in a way retrying cannot fix (undeserializable, or a
+     * non-retryable {@code ActionException}), to {@code <topic>-dlt}. Off: such records are logged and dropped.
+     */
+    boolean deadLetter() default false;
+}
@@ -0,0 +1,17 @@
+package com.dil.logicengine.annotations;
+
+public enum ProcessingMode {
+    /**
+     * Records are processed one at a time on the listener container thread.
+     */
+    SEQUENTIAL,
+    /**
+     * Records with the same key are processed in order; different keys run concurrently on virtual threads.
+     * Records without a key are ordered per partition.
+     */
+    KEY_ORDERED,
+    /**
+     * Records of the same partition are processed in order; partitions run concurrently on virtual threads.
+     */
+    PARTITION_ORDERED
+}
@@ -0,0 +1,45 @@
+package com.dil.logicengine.api;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.Scope;
+
+import java.util.Map;
+
+/**
+ * Results of the actions a {@link DependentAction} depends on. The engine binds them to the current context
+ * while the dependent action runs, so they reach it through any enhancer.
+ */
+public final class ActionResults {
+
+    private static final ActionResults EMPTY = new ActionResults(Map.of());
+    private static final ContextKey<ActionResults> CURRENT = ContextKey.named("logicengine.action-results");
+
+    private final Map<Class<?>, Object> results;
+
+    public ActionResults(Map<Class<?>, Object> results) {
+        this.results = results;
+    }
+
+    public static ActionResults empty() {
+        return EMPTY;
+    }
+
+    public static ActionResults current() {
+        ActionResults current = Context.current().get(CURRENT);
+        return current == null ? EMPTY : current;
+    }
+
+    public Scope makeCurrent() {
+        return Context.current().with(CURRENT, this).makeCurrent();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Class<? extends LogicAction<?, T>> actionType) {
+        return (T) results.get(actionType);
+    }
+
+    public boolean contains(Class<?> actionType) {
+        return results.containsKey(actionType);
+    }
+}
@@ -0,0 +1,12 @@
+package com.dil.logicengine.api;
+
+/**
+ * An action did not finish within its timeout or the flow deadline and was cancelled, or was skipped because
+ * the flow deadline had already passed. Retryable: the request itself may well succeed later.
+ */
+public class ActionTimeoutException extends ActionException {
+
+    public ActionTimeoutException(Class<?> actionType, String message) {
+        super(actionType, message, true);
+    }
+}
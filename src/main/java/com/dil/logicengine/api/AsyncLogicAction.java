@@ -0,0 +1,26 @@
+package com.dil.logicengine.api;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * An action that completes asynchronously, e.g. a non-blocking call to a downstream service.
+ * {@code LogicEngine.executeActionsAsync} continues the flow when the returned stage completes instead of
+ * holding a thread; the synchronous engine entry points fall back to {@link #execute}, which waits.
+ */
+public interface AsyncLogicAction<I, O> extends LogicAction<I, O> {
+
+    CompletionStage<O> executeAsync(I input);
+
+    @Override
+    default O execute(I input) {
+        try {
+            return executeAsync(input).toCompletableFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
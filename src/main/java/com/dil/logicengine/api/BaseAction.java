@@ -3,11 +3,20 @@ package com.dil.logicengine.api;
 import com.dil.logicengine.enhancer.ActionLogger;
 
 public abstract class BaseAction<REQ, RES> implements LogicAction<REQ, RES> {
+
+    // One logger per action class, however many instances are created
+    private static final ClassValue<ActionLogger> LOGGERS = new ClassValue<>() {
+        @Override
+        protected ActionLogger computeValue(Class<?> type) {
+            return new ActionLogger(type);
+        }
+    };
+
     protected final ActionLogger log;
 
     protected BaseAction() {
-        this.log = new ActionLogger(getClass());
+        this.log = LOGGERS.get(getClass());
     }
 
     // No execute() here — that's okay because the class is abstract
-}
\ No newline at end of file
+}
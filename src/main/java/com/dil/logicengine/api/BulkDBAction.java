@@ -0,0 +1,18 @@
+package com.dil.logicengine.api;
+
+import java.util.List;
+
+/**
+ * A {@link DBAction} that can process many requests in one call, typically as a single JDBC batch and flush.
+ * {@code LogicEngine.executeBulk} invokes {@link #executeAll} once for all requests still alive at this step;
+ * the results must be returned in input order.
+ */
+public interface BulkDBAction<I, O> extends DBAction<I, O> {
+
+    List<O> executeAll(List<I> inputs);
+
+    @Override
+    default O execute(I input) {
+        return executeAll(List.of(input)).get(0);
+    }
+}
@@ -0,0 +1,10 @@
+package com.dil.logicengine.api;
+
+import java.util.List;
+
+/**
+ * Input that enhancers see when a {@link BulkDBAction} runs in bulk; the matching result is a {@code List}
+ * in the same order.
+ */
+public record BulkRequest<I>(List<I> inputs) {
+}
@@ -0,0 +1,9 @@
+package com.dil.logicengine.api;
+
+/**
+ * Deserializer for {@code DeserialisationType.CUSTOM} listeners. Implementations are Spring beans and must be
+ * thread-safe; they receive the raw record value.
+ */
+public interface CustomDeserializer {
+    <T> T deserialize(byte[] data, Class<T> targetType);
+}
@@ -0,0 +1,20 @@
+package com.dil.logicengine.api;
+
+import java.util.List;
+
+/**
+ * An action that consumes the results of other actions in the same flow.
+ * Used by {@code LogicEngine.executeActionsParallel} to build the execution DAG:
+ * the action only starts once every action listed in {@link #dependsOn()} has completed.
+ */
+public interface DependentAction<I, O> extends LogicAction<I, O> {
+
+    List<Class<? extends LogicAction<I, ?>>> dependsOn();
+
+    O execute(I input, ActionResults results);
+
+    @Override
+    default O execute(I input) {
+        return execute(input, ActionResults.current());
+    }
+}
@@ -0,0 +1,53 @@
+package com.dil.logicengine.api;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.Scope;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which the current flow must be done. It travels with the OpenTelemetry context, so DAG
+ * branches and async continuations see the same deadline. It is cooperative: the engine skips (and compensates
+ * for) the remaining actions once it has passed, but running actions are only cancelled if they also have a
+ * configured timeout, which the timeout enhancer then shortens to what is left of the deadline.
+ */
+public final class FlowDeadline {
+
+    private static final ContextKey<FlowDeadline> DEADLINE = ContextKey.named("logicengine.flow-deadline");
+
+    private final long deadlineNanos;
+
+    private FlowDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static FlowDeadline current() {
+        return Context.current().get(DEADLINE);
+    }
+
+    /**
+     * Makes {@code budget} from now the current deadline, unless an enclosing deadline is earlier.
+     */
+    public static Scope within(Duration budget) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        FlowDeadline enclosing = current();
+        if (enclosing != null && enclosing.deadlineNanos - deadline <= 0) {
+            return Scope.noop();
+        }
+        return Context.current().with(DEADLINE, new FlowDeadline(deadline)).makeCurrent();
+    }
+
+    public long remainingNanos() {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    public static boolean currentIsExpired() {
+        FlowDeadline deadline = current();
+        return deadline != null && deadline.isExpired();
+    }
+}
@@ -0,0 +1,84 @@
+package com.dil.logicengine.api;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A named, immutable sequence of actions, defined once (typically while the context starts) and compiled by
+ * {@code LogicEngine.compile} into a plan that is executed for every request. Actions are shared by all
+ * executions, so they must be stateless; Spring singleton beans are the intended source.
+ * <pre>{@code
+ * FlowDefinition<String> greeting = FlowDefinition.<String>named("greeting")
+ *         .then(greeterAction)
+ *         .build();
+ * }</pre>
+ */
+public final class FlowDefinition<REQUEST> {
+
+    private final String name;
+    private final List<LogicAction<REQUEST, ?>> actions;
+
+    private FlowDefinition(String name, List<LogicAction<REQUEST, ?>> actions) {
+        this.name = name;
+        this.actions = List.copyOf(actions);
+    }
+
+    public static <REQUEST> Builder<REQUEST> named(String name) {
+        return new Builder<>(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<LogicAction<REQUEST, ?>> getActions() {
+        return actions;
+    }
+
+    /**
+     * Key of the slot holding {@code actionType}'s result in an {@link IndexedResponseBuilder}.
+     */
+    public <T> ResultKey<T> key(Class<? extends LogicAction<?, T>> actionType) {
+        return ResultKey.in(actions, actionType);
+    }
+
+    public static final class Builder<REQUEST> {
+        private final String name;
+        private final List<LogicAction<REQUEST, ?>> actions = new ArrayList<>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder<REQUEST> then(LogicAction<REQUEST, ?> action) {
+            if (action == null) {
+                throw new IllegalArgumentException("Flow " + name + " has a null action at position " + actions.size());
+            }
+            actions.add(action);
+            return this;
+        }
+
+        /**
+         * Rejects flows without a name or actions, and flows using an action class twice (its result slot would be
+         * ambiguous).
+         */
+        public FlowDefinition<REQUEST> build() {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Flow name must not be blank");
+            }
+            if (actions.isEmpty()) {
+                throw new IllegalArgumentException("Flow " + name + " has no actions");
+            }
+            Set<Class<?>> seen = new HashSet<>();
+            for (LogicAction<REQUEST, ?> action : actions) {
+                if (!seen.add(action.getClass())) {
+                    throw new IllegalArgumentException("Flow " + name + " uses "
+                            + action.getClass().getSimpleName() + " more than once");
+                }
+            }
+            return new FlowDefinition<>(name, actions);
+        }
+    }
+}
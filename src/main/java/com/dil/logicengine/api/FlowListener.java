@@ -0,0 +1,48 @@
+package com.dil.logicengine.api;
+
+import io.opentelemetry.context.Context;
+
+/**
+ * Engine-level callbacks for observing flows without being part of any action pipeline. Every
+ * {@code FlowListener} bean is registered with the engine. Callbacks run on the flow's thread and must be
+ * cheap and non-throwing.
+ * <p>
+ * {@code flow} names the engine entry point ({@code executeActions}, {@code executeActionsAsync},
+ * {@code executeActionsParallel}, {@code executeBulk}).
+ */
+public interface FlowListener {
+
+    default void flowStarted(String flow) {
+    }
+
+    /**
+     * Called right after {@link #flowStarted} with the context the flow's actions will run in. A listener that
+     * needs to find its flow again from action-level code returns {@code context} with its own per-flow state
+     * added; it is handed back to {@link #flowFinished(String, long, boolean, Context)}.
+     */
+    default Context attach(String flow, Context context) {
+        return context;
+    }
+
+    /**
+     * @param failed whether an action failed (the flow was compensated) or the engine threw
+     */
+    default void flowFinished(String flow, long durationNanos, boolean failed) {
+    }
+
+    /**
+     * {@link #flowFinished(String, long, boolean)} with the context returned by {@link #attach}.
+     */
+    default void flowFinished(String flow, long durationNanos, boolean failed, Context context) {
+        flowFinished(flow, durationNanos, failed);
+    }
+
+    /**
+     * Compensation is about to run for {@code actions} completed actions.
+     */
+    default void compensationStarted(int actions) {
+    }
+
+    default void compensationFailed(Class<?> actionClass, Exception cause) {
+    }
+}
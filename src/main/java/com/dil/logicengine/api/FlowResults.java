@@ -0,0 +1,58 @@
+package com.dil.logicengine.api;
+
+/**
+ * Results of one flow by slot, built by {@link IndexedResponseBuilder}. A flow stops at its first failure, so
+ * there is at most one.
+ */
+public final class FlowResults {
+
+    private final Object[] results;
+    private int failedIndex = -1;
+    private Class<?> failedAction;
+    private Exception failure;
+
+    FlowResults(int size) {
+        this.results = new Object[size];
+    }
+
+    /**
+     * The action's result, or null if it did not complete.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ResultKey<T> key) {
+        return (T) results[key.index()];
+    }
+
+    /**
+     * The action's failure, or null if it did not fail.
+     */
+    public Exception error(ResultKey<?> key) {
+        return key.index() == failedIndex ? failure : null;
+    }
+
+    public boolean failed() {
+        return failure != null;
+    }
+
+    public Class<?> failedAction() {
+        return failedAction;
+    }
+
+    public Exception failure() {
+        return failure;
+    }
+
+    public int size() {
+        return results.length;
+    }
+
+    void set(int index, Object result) {
+        results[index] = result;
+    }
+
+    void fail(int index, Class<?> actionType, Exception exception) {
+        failedIndex = index;
+        failedAction = actionType;
+        failure = exception;
+    }
+}
@@ -1,3 +1,15 @@
 package com.dil.logicengine.api;
 
-public interface InboxAction<I, O> extends LogicAction<I, O> {}
+/**
+ * An action that must take effect at most once per inbound message. The engine records the message id in
+ * the inbox table in the same transaction as the action and skips the action for ids it has already seen.
+ */
+public interface InboxAction<I, O> extends LogicAction<I, O> {
+
+    /**
+     * Id used for deduplication. Defaults to the id of the Kafka message being processed.
+     */
+    default String messageId(I input) {
+        return MessageContext.currentMessageId();
+    }
+}
@@ -0,0 +1,78 @@
+package com.dil.logicengine.api;
+
+import java.util.List;
+
+/**
+ * Collects results into a pre-sized array by slot instead of a map keyed by action name; read them back through
+ * {@link ResultKey}s. No hashing, key strings or resizing per result.
+ * <p>
+ * The engine reports by slot. A result reported by class only goes to the first slot not reported yet that holds
+ * that action type, or, if the builder was only given the flow's size, to the first slot not reported yet.
+ */
+public class IndexedResponseBuilder<REQUEST> implements ResponseBuilder<REQUEST, FlowResults> {
+
+    private final FlowResults results;
+    // Action type per slot, or null if only the size is known
+    private final Class<?>[] actionTypes;
+    // Slots taken by class-keyed callbacks; only allocated once one arrives
+    private boolean[] taken;
+
+    /**
+     * @param size number of actions in the flow
+     */
+    public IndexedResponseBuilder(int size) {
+        this.results = new FlowResults(size);
+        this.actionTypes = null;
+    }
+
+    public IndexedResponseBuilder(List<? extends LogicAction<REQUEST, ?>> actions) {
+        this.results = new FlowResults(actions.size());
+        this.actionTypes = new Class<?>[actions.size()];
+        for (int i = 0; i < actions.size(); i++) {
+            actionTypes[i] = actions.get(i).getClass();
+        }
+    }
+
+    @Override
+    public void addResult(int index, Class<? extends LogicAction<REQUEST, ?>> actionType, Object result) {
+        results.set(index, result);
+    }
+
+    @Override
+    public void handleException(int index, Class<? extends LogicAction<REQUEST, ?>> actionType, Exception exception) {
+        results.fail(index, actionType, exception);
+    }
+
+    @Override
+    public void addResult(Class<? extends LogicAction<REQUEST, ?>> actionType, Object result) {
+        int index = slotOf(actionType);
+        if (index < 0) {
+            throw new IllegalArgumentException(actionType.getSimpleName() + " has no slot left in the flow");
+        }
+        results.set(index, result);
+    }
+
+    @Override
+    public void handleException(Class<? extends LogicAction<REQUEST, ?>> actionType, Exception exception) {
+        // Without a slot the failure is still reported, just not under any key
+        results.fail(slotOf(actionType), actionType, exception);
+    }
+
+    private int slotOf(Class<?> actionType) {
+        if (taken == null) {
+            taken = new boolean[results.size()];
+        }
+        for (int i = 0; i < taken.length; i++) {
+            if (!taken[i] && (actionTypes == null || actionTypes[i] == actionType)) {
+                taken[i] = true;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public FlowResults build(REQUEST request) {
+        return results;
+    }
+}
@@ -0,0 +1,74 @@
+package com.dil.logicengine.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes each result to a JSON object as soon as its action completes, instead of collecting them first. The
+ * layout matches {@link SimpleResponseBuilder}: one field per action simple name, and {@code <name>_error}
+ * holding the message of a failure.
+ * <p>
+ * The generator must have a codec (create it through an {@code ObjectMapper}) so results of any type can be
+ * written. Field names are encoded once per action class. {@link #build} closes the object and flushes.
+ */
+public class JsonStreamingResponseBuilder<REQUEST> implements ResponseBuilder<REQUEST, Void> {
+
+    private static final ClassValue<SerializedString> RESULT_NAMES = new ClassValue<>() {
+        @Override
+        protected SerializedString computeValue(Class<?> type) {
+            return new SerializedString(type.getSimpleName());
+        }
+    };
+
+    private static final ClassValue<SerializedString> ERROR_NAMES = new ClassValue<>() {
+        @Override
+        protected SerializedString computeValue(Class<?> type) {
+            return new SerializedString(type.getSimpleName() + "_error");
+        }
+    };
+
+    private final JsonGenerator generator;
+
+    public JsonStreamingResponseBuilder(JsonGenerator generator) {
+        this.generator = generator;
+        try {
+            generator.writeStartObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void addResult(Class<? extends LogicAction<REQUEST, ?>> actionType, Object result) {
+        try {
+            generator.writeFieldName(RESULT_NAMES.get(actionType));
+            generator.writeObject(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void handleException(Class<? extends LogicAction<REQUEST, ?>> actionType, Exception exception) {
+        try {
+            generator.writeFieldName(ERROR_NAMES.get(actionType));
+            generator.writeString(exception.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Void build(REQUEST request) {
+        try {
+            generator.writeEndObject();
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.dil.logicengine.api;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.Scope;
+
+/**
+ * Carries the id of the inbound message a flow is processing. The listener registrar sets it from the
+ * {@link #MESSAGE_ID_HEADER} header; it travels with the OpenTelemetry context, so it is also visible to
+ * actions running on other threads of the same flow.
+ */
+public final class MessageContext {
+
+    public static final String MESSAGE_ID_HEADER = "logicengine.message-id";
+
+    private static final ContextKey<String> MESSAGE_ID = ContextKey.named("logicengine.message-id");
+
+    private MessageContext() {
+    }
+
+    public static String currentMessageId() {
+        return Context.current().get(MESSAGE_ID);
+    }
+
+    public static Scope withMessageId(String messageId) {
+        if (messageId == null) {
+            return Scope.noop();
+        }
+        return Context.current().with(MESSAGE_ID, messageId).makeCurrent();
+    }
+}
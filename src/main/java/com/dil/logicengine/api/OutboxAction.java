@@ -0,0 +1,12 @@
+package com.dil.logicengine.api;
+
+import java.util.List;
+
+/**
+ * An action that emits messages as a consequence of its result. The messages are written to the outbox
+ * in the same transaction as the action and published by the relay once that transaction commits.
+ */
+public interface OutboxAction<I, O> extends LogicAction<I, O> {
+
+    List<OutgoingMessage> outgoing(I input, O result);
+}
@@ -0,0 +1,4 @@
+package com.dil.logicengine.api;
+
+public record OutgoingMessage(String topic, String key, Object payload) {
+}
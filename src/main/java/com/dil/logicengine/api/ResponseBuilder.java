@@ -6,4 +6,20 @@ public interface ResponseBuilder<REQUEST, RESPONSE> {
     void handleException(Class<? extends LogicAction<REQUEST, ?>> actionType, Exception exception);
 
     RESPONSE build(REQUEST request);
+
+    /**
+     * Called by the engine instead of {@link #addResult(Class, Object)}; {@code index} is the action's slot, its
+     * position in the flow's action list. Builders that store results by slot override this.
+     */
+    default void addResult(int index, Class<? extends LogicAction<REQUEST, ?>> actionType, Object result) {
+        addResult(actionType, result);
+    }
+
+    /**
+     * Called by the engine instead of {@link #handleException(Class, Exception)}; see
+     * {@link #addResult(int, Class, Object)}.
+     */
+    default void handleException(int index, Class<? extends LogicAction<REQUEST, ?>> actionType, Exception exception) {
+        handleException(actionType, exception);
+    }
 }
@@ -0,0 +1,58 @@
+package com.dil.logicengine.api;
+
+import java.util.List;
+
+/**
+ * Typed handle on the slot of one action's result in {@link FlowResults}. Create keys once per flow, next to
+ * the action list they refer to.
+ */
+public final class ResultKey<T> {
+
+    private final int index;
+    private final Class<? extends LogicAction<?, T>> actionType;
+
+    private ResultKey(int index, Class<? extends LogicAction<?, T>> actionType) {
+        this.index = index;
+        this.actionType = actionType;
+    }
+
+    public static <T> ResultKey<T> of(int index, Class<? extends LogicAction<?, T>> actionType) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Slot of " + actionType.getSimpleName() + " must not be negative");
+        }
+        return new ResultKey<>(index, actionType);
+    }
+
+    /**
+     * Key for the only action of {@code actionType} in {@code actions}.
+     */
+    public static <T> ResultKey<T> in(List<? extends LogicAction<?, ?>> actions,
+                                      Class<? extends LogicAction<?, T>> actionType) {
+        int index = -1;
+        for (int i = 0; i < actions.size(); i++) {
+            if (actions.get(i).getClass() == actionType) {
+                if (index >= 0) {
+                    throw new IllegalArgumentException(actionType.getSimpleName() + " appears more than once in the flow");
+                }
+                index = i;
+            }
+        }
+        if (index < 0) {
+            throw new IllegalArgumentException(actionType.getSimpleName() + " is not part of the flow");
+        }
+        return new ResultKey<>(index, actionType);
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public Class<? extends LogicAction<?, T>> actionType() {
+        return actionType;
+    }
+
+    @Override
+    public String toString() {
+        return actionType.getSimpleName() + "@" + index;
+    }
+}
@@ -0,0 +1,26 @@
+package com.dil.logicengine.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.logging.LogLevel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "logicengine.logging")
+public class LoggingProperties {
+
+    /**
+     * Level of the entering/exiting lines written around each action. {@code OFF} leaves the logging
+     * enhancer out of the pipeline.
+     */
+    private LogLevel level = LogLevel.INFO;
+
+    /**
+     * Per-action overrides keyed by action simple name; take precedence over {@code @ActionLogging}.
+     */
+    private Map<String, LogLevel> actions = new HashMap<>();
+}
@@ -0,0 +1,20 @@
+package com.dil.logicengine.config;
+
+import com.dil.logicengine.profiler.ProfilerProperties;
+import com.dil.logicengine.resilience.ResilienceProperties;
+import com.dil.logicengine.retry.RetryProperties;
+import com.dil.logicengine.timeout.TimeoutProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({
+        TracingProperties.class,
+        LoggingProperties.class,
+        RetryProperties.class,
+        ResilienceProperties.class,
+        TimeoutProperties.class,
+        ProfilerProperties.class
+})
+public class LogicEngineConfiguration {
+}
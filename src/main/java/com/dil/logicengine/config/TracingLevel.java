@@ -0,0 +1,26 @@
+package com.dil.logicengine.config;
+
+/**
+ * How much of a flow the engine traces.
+ */
+public enum TracingLevel {
+
+    /**
+     * No spans at all; the tracing enhancer is left out of every pipeline.
+     */
+    OFF,
+
+    /**
+     * One span per engine call (and per compensation run), none per action.
+     */
+    ENGINE,
+
+    /**
+     * Engine spans plus one span per action.
+     */
+    ACTION;
+
+    public boolean traces(TracingLevel level) {
+        return compareTo(level) >= 0;
+    }
+}
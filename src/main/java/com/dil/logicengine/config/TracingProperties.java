@@ -0,0 +1,16 @@
+package com.dil.logicengine.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "logicengine.tracing")
+public class TracingProperties {
+
+    /**
+     * Span granularity. Sampling still applies on top of it: unsampled spans skip all attribute work.
+     */
+    private TracingLevel level = TracingLevel.ACTION;
+}
@@ -0,0 +1,195 @@
+package com.dil.logicengine.deadletter;
+
+import com.dil.logicengine.api.ActionException;
+import com.dil.logicengine.enhancer.ActionLogger;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Moves a record that failed in a {@code @LogicEngineListener} to its next {@link RetryTopics retry topic}, or to
+ * the dead-letter topic once retries are exhausted or pointless. The value, key and headers are kept; the failure
+ * is described in {@code logicengine-*} headers:
+ * <ul>
+ *     <li>{@value #ORIGINAL_TOPIC_HEADER}, {@value #ORIGINAL_PARTITION_HEADER}, {@value #ORIGINAL_OFFSET_HEADER}:
+ *     where the record was first consumed</li>
+ *     <li>{@value #ATTEMPT_HEADER}: retry topics passed so far; {@value #DUE_HEADER}: epoch millis before which a
+ *     retry topic must not process the record</li>
+ *     <li>{@value #EXCEPTION_HEADER}, {@value #EXCEPTION_MESSAGE_HEADER}, and {@value #FAILED_ACTION_HEADER} from
+ *     {@link ActionException#getActionType()} when the failure came from an action</li>
+ * </ul>
+ * {@link #forward} waits for the broker to acknowledge the send and throws if it does not, so the listener fails
+ * and the container does not commit a record that was neither handled nor forwarded. Outcomes are counted in {@code logicengine.listener.failures{topic,outcome=retried|dead_lettered|dropped}}.
+ */
+@Component
+public class DeadLetterPublisher {
+
+    public static final String ORIGINAL_TOPIC_HEADER = "logicengine-original-topic";
+    public static final String ORIGINAL_PARTITION_HEADER = "logicengine-original-partition";
+    public static final String ORIGINAL_OFFSET_HEADER = "logicengine-original-offset";
+    public static final String ATTEMPT_HEADER = "logicengine-attempt";
+    public static final String DUE_HEADER = "logicengine-retry-due";
+    public static final String EXCEPTION_HEADER = "logicengine-exception";
+    public static final String EXCEPTION_MESSAGE_HEADER = "logicengine-exception-message";
+    public static final String FAILED_ACTION_HEADER = "logicengine-failed-action";
+
+    // Well below max.poll.interval.ms: the consumer thread waits for the send, and a failed one is simply retried
+    private static final Duration SEND_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ActionLogger log = new ActionLogger(DeadLetterPublisher.class);
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public DeadLetterPublisher(ProducerFactory<?, ?> producerFactory, MeterRegistry meterRegistry) {
+        // Values are forwarded exactly as consumed; kept private so Boot's own KafkaTemplate is still auto-configured
+        this(new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                producerFactory.getConfigurationProperties(),
+                new StringSerializer(),
+                new ByteArraySerializer())), meterRegistry);
+    }
+
+    public DeadLetterPublisher(KafkaTemplate<String, byte[]> kafkaTemplate, MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param retryable false skips the remaining retry topics
+     * @throws KafkaException if the record could not be forwarded; it must then not be committed
+     */
+    public void forward(ConsumerRecord<String, byte[]> record, Exception failure, boolean retryable, RetryTopics topics) {
+        ProducerRecord<String, byte[]> forwarded = route(record, failure, retryable, topics);
+        if (forwarded == null) {
+            meterRegistry.counter("logicengine.listener.failures", "topic", topics.topic(), "outcome", "dropped").increment();
+            log.warn("Dropping record topic={} partition={} offset={} after {} retries: {}",
+                    record.topic(), record.partition(), record.offset(), attemptOf(record), failure.getMessage());
+            return;
+        }
+
+        String destination = forwarded.topic();
+        try {
+            kafkaTemplate.send(forwarded).get(SEND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while forwarding record to " + destination, e);
+        } catch (ExecutionException | TimeoutException e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Failed to forward record topic={} partition={} offset={} to {}: {}",
+                    record.topic(), record.partition(), record.offset(), destination, cause.getMessage());
+            throw new KafkaException("Failed to forward record to " + destination, cause);
+        }
+        String outcome = destination.equals(topics.deadLetterTopic()) ? "dead_lettered" : "retried";
+        meterRegistry.counter("logicengine.listener.failures", "topic", topics.topic(), "outcome", outcome).increment();
+    }
+
+    /**
+     * The record to publish for a failure, or null if it has nowhere left to go.
+     */
+    ProducerRecord<String, byte[]> route(ConsumerRecord<String, byte[]> record, Exception failure, boolean retryable,
+                                         RetryTopics topics) {
+        int attempt = attemptOf(record);
+        String destination;
+        long due = 0;
+        if (retryable && attempt < topics.retries().size()) {
+            RetryTopics.RetryTopic retry = topics.retries().get(attempt);
+            destination = retry.name();
+            due = System.currentTimeMillis() + retry.delayMs();
+        } else if (topics.deadLetterTopic() != null) {
+            destination = topics.deadLetterTopic();
+        } else {
+            return null;
+        }
+
+        ProducerRecord<String, byte[]> forwarded = new ProducerRecord<>(destination, null, record.key(), record.value());
+        Headers headers = forwarded.headers();
+        for (Header header : record.headers()) {
+            headers.add(header);
+        }
+        if (headers.lastHeader(ORIGINAL_TOPIC_HEADER) == null) {
+            put(headers, ORIGINAL_TOPIC_HEADER, record.topic());
+            put(headers, ORIGINAL_PARTITION_HEADER, String.valueOf(record.partition()));
+            put(headers, ORIGINAL_OFFSET_HEADER, String.valueOf(record.offset()));
+        }
+        if (due > 0) {
+            put(headers, ATTEMPT_HEADER, String.valueOf(attempt + 1));
+            put(headers, DUE_HEADER, String.valueOf(due));
+        } else {
+            headers.remove(DUE_HEADER);
+        }
+        Throwable cause = rootFailure(failure);
+        put(headers, EXCEPTION_HEADER, cause.getClass().getName());
+        if (cause.getMessage() != null) {
+            put(headers, EXCEPTION_MESSAGE_HEADER, cause.getMessage());
+        } else {
+            headers.remove(EXCEPTION_MESSAGE_HEADER);
+        }
+        ActionException actionException = actionException(failure);
+        if (actionException != null && actionException.getActionType() != null) {
+            put(headers, FAILED_ACTION_HEADER, actionException.getActionType().getName());
+        } else {
+            headers.remove(FAILED_ACTION_HEADER);
+        }
+        return forwarded;
+    }
+
+    /**
+     * Failures of an {@link ActionException} follow its flag; anything else is worth retrying.
+     */
+    public static boolean isRetryable(Throwable failure) {
+        ActionException actionException = actionException(failure);
+        return actionException == null || actionException.isRetryable();
+    }
+
+    public static int attemptOf(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(ATTEMPT_HEADER);
+        return header == null ? 0 : Integer.parseInt(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Epoch millis before which a record on a retry topic must not be processed; 0 if it has none.
+     */
+    public static long dueOf(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(DUE_HEADER);
+        return header == null ? 0 : Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    private static ActionException actionException(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof ActionException actionException) {
+                return actionException;
+            }
+        }
+        return null;
+    }
+
+    private static Throwable rootFailure(Throwable failure) {
+        // ActionExceptions wrap the action's own failure; report that one
+        Throwable cause = failure;
+        while (cause instanceof ActionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static void put(Headers headers, String key, String value) {
+        headers.remove(key);
+        headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+}
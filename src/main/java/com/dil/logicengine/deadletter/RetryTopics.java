@@ -0,0 +1,33 @@
+package com.dil.logicengine.deadletter;
+
+import com.dil.logicengine.annotations.LogicEngineListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Where records that failed in a listener go next: the retry topics in order, then the dead-letter topic.
+ */
+public record RetryTopics(String topic, List<RetryTopic> retries, String deadLetterTopic) {
+
+    public static RetryTopics of(LogicEngineListener ann) {
+        List<RetryTopic> retries = new ArrayList<>(ann.retryDelays().length);
+        for (int i = 0; i < ann.retryDelays().length; i++) {
+            if (ann.retryDelays()[i] < 0) {
+                throw new IllegalArgumentException("Retry delays of " + ann.topic() + " must not be negative");
+            }
+            retries.add(new RetryTopic(ann.topic() + "-retry-" + i, ann.retryDelays()[i]));
+        }
+        return new RetryTopics(ann.topic(), List.copyOf(retries), ann.deadLetter() ? ann.topic() + "-dlt" : null);
+    }
+
+    /**
+     * Whether failed records go anywhere at all.
+     */
+    public boolean isEnabled() {
+        return !retries.isEmpty() || deadLetterTopic != null;
+    }
+
+    public record RetryTopic(String name, long delayMs) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.dil.logicengine.enhancer;
+
+import org.springframework.core.Ordered;
+
+/**
+ * SPI for cross-cutting behaviour around actions. Register an implementation as a Spring bean
+ * (or through {@link EnhancerRegistry#register}) and it is compiled into the pipeline of every
+ * action class it {@link #supports supports}.
+ * <p>
+ * {@link #compile} runs once per action class; anything derived from the metadata (names, attributes,
+ * meters) should be resolved there and captured by the returned interceptor.
+ * Enhancers with a lower order wrap the ones with a higher order.
+ */
+public interface ActionEnhancer extends Ordered {
+
+    default boolean supports(ActionMetadata metadata) {
+        return true;
+    }
+
+    ActionInterceptor compile(ActionMetadata metadata);
+
+    @Override
+    default int getOrder() {
+        return 0;
+    }
+}
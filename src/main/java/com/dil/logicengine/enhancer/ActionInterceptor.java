@@ -0,0 +1,29 @@
+package com.dil.logicengine.enhancer;
+
+import com.dil.logicengine.api.LogicAction;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+@FunctionalInterface
+public interface ActionInterceptor {
+
+    /**
+     * Called for every execution of the action. Implementations must call {@code next.execute(action, input)}
+     * to continue down the chain, or return without calling it to short-circuit.
+     */
+    Object intercept(LogicAction<Object, Object> action, Object input, ActionPipeline next);
+
+    /**
+     * Called when the action runs as part of an async flow. The default runs {@link #intercept} synchronously,
+     * which is correct for every interceptor but waits for async actions further down the chain; interceptors
+     * that can wrap a {@link CompletionStage} should override it and continue with {@code next.executeAsync}.
+     */
+    default CompletionStage<Object> interceptAsync(LogicAction<Object, Object> action, Object input, ActionPipeline next) {
+        try {
+            return CompletableFuture.completedFuture(intercept(action, input, next));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
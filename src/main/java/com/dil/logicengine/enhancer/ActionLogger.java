@@ -2,7 +2,14 @@ package com.dil.logicengine.enhancer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.LogLevel;
 
+/**
+ * Thin wrapper over an SLF4J logger. Fixed-arity overloads keep call sites with up to two arguments from
+ * allocating a varargs array. Three or more arguments go through the {@code Object...} overloads, whose array
+ * is allocated at the call site before any level check runs; on hot paths, guard those calls, and any call
+ * whose arguments are computed, with {@link #isEnabled} or the {@code is*Enabled} methods.
+ */
 public class ActionLogger {
     private final Logger logger;
 
@@ -10,12 +17,113 @@ public class ActionLogger {
         this.logger = LoggerFactory.getLogger(clazz);
     }
 
+    public boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    public boolean isInfoEnabled() {
+        return logger.isInfoEnabled();
+    }
+
+    /**
+     * Whether a message at {@code level} would be logged; always false for {@link LogLevel#OFF}.
+     */
+    public boolean isEnabled(LogLevel level) {
+        return switch (level) {
+            case TRACE -> logger.isTraceEnabled();
+            case DEBUG -> logger.isDebugEnabled();
+            case INFO -> logger.isInfoEnabled();
+            case WARN -> logger.isWarnEnabled();
+            case ERROR, FATAL -> logger.isErrorEnabled();
+            case OFF -> false;
+        };
+    }
+
+    public void log(LogLevel level, String message) {
+        switch (level) {
+            case TRACE -> logger.trace(message);
+            case DEBUG -> logger.debug(message);
+            case INFO -> logger.info(message);
+            case WARN -> logger.warn(message);
+            case ERROR, FATAL -> logger.error(message);
+            case OFF -> {
+            }
+        }
+    }
+
+    public void log(LogLevel level, String message, Object arg) {
+        switch (level) {
+            case TRACE -> logger.trace(message, arg);
+            case DEBUG -> logger.debug(message, arg);
+            case INFO -> logger.info(message, arg);
+            case WARN -> logger.warn(message, arg);
+            case ERROR, FATAL -> logger.error(message, arg);
+            case OFF -> {
+            }
+        }
+    }
+
+    public void debug(String message) {
+        logger.debug(message);
+    }
+
+    public void debug(String message, Object arg) {
+        logger.debug(message, arg);
+    }
+
+    public void debug(String message, Object arg1, Object arg2) {
+        logger.debug(message, arg1, arg2);
+    }
+
+    public void debug(String message, Object... args) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(message, args);
+        }
+    }
+
+    public void info(String message) {
+        logger.info(message);
+    }
+
+    public void info(String message, Object arg) {
+        logger.info(message, arg);
+    }
+
+    public void info(String message, Object arg1, Object arg2) {
+        logger.info(message, arg1, arg2);
+    }
+
     public void info(String message, Object... args) {
-        logger.info(message,args);
+        if (logger.isInfoEnabled()) {
+            logger.info(message, args);
+        }
+    }
+
+    public void warn(String message, Object arg) {
+        logger.warn(message, arg);
+    }
+
+    public void warn(String message, Object arg1, Object arg2) {
+        logger.warn(message, arg1, arg2);
+    }
+
+    public void warn(String message, Object... args) {
+        if (logger.isWarnEnabled()) {
+            logger.warn(message, args);
+        }
+    }
+
+    public void error(String message, Object arg) {
+        logger.error(message, arg);
+    }
 
+    public void error(String message, Object arg1, Object arg2) {
+        logger.error(message, arg1, arg2);
     }
 
     public void error(String message, Object... args) {
-        logger.error(message,args);
+        if (logger.isErrorEnabled()) {
+            logger.error(message, args);
+        }
     }
-}
\ No newline at end of file
+}
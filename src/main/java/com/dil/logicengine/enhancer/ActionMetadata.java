@@ -0,0 +1,32 @@
+package com.dil.logicengine.enhancer;
+
+import com.dil.logicengine.api.CompensatableAction;
+import com.dil.logicengine.api.DBAction;
+import com.dil.logicengine.api.ExternalAction;
+import lombok.Getter;
+
+/**
+ * Everything enhancers need to know about an action class, resolved once when its pipeline is compiled
+ * so nothing has to be looked up reflectively while the action runs.
+ */
+@Getter
+public final class ActionMetadata {
+
+    private final Class<?> actionClass;
+    private final String name;
+    private final boolean compensatable;
+    private final boolean external;
+    private final boolean db;
+
+    private ActionMetadata(Class<?> actionClass) {
+        this.actionClass = actionClass;
+        this.name = actionClass.getSimpleName();
+        this.compensatable = CompensatableAction.class.isAssignableFrom(actionClass);
+        this.external = ExternalAction.class.isAssignableFrom(actionClass);
+        this.db = DBAction.class.isAssignableFrom(actionClass);
+    }
+
+    public static ActionMetadata of(Class<?> actionClass) {
+        return new ActionMetadata(actionClass);
+    }
+}
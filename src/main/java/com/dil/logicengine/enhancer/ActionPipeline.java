@@ -0,0 +1,66 @@
+package com.dil.logicengine.enhancer;
+
+import com.dil.logicengine.api.AsyncLogicAction;
+import com.dil.logicengine.api.BulkDBAction;
+import com.dil.logicengine.api.BulkRequest;
+import com.dil.logicengine.api.LogicAction;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A compiled enhancer chain for one action class. Each node holds one interceptor and the rest of
+ * the chain; the terminal node executes the action itself ({@code executeAll} for a {@link BulkRequest}).
+ * Pipelines are immutable and shared by every execution of the action class.
+ */
+public final class ActionPipeline {
+
+    private final ActionMetadata metadata;
+    private final ActionInterceptor interceptor;
+    private final ActionPipeline next;
+
+    ActionPipeline(ActionMetadata metadata, ActionInterceptor interceptor, ActionPipeline next) {
+        this.metadata = metadata;
+        this.interceptor = interceptor;
+        this.next = next;
+    }
+
+    static ActionPipeline terminal(ActionMetadata metadata) {
+        return new ActionPipeline(metadata, null, null);
+    }
+
+    public ActionMetadata getMetadata() {
+        return metadata;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Object execute(LogicAction<Object, Object> action, Object input) {
+        if (interceptor == null) {
+            if (input instanceof BulkRequest<?> bulk) {
+                return ((BulkDBAction<Object, Object>) action).executeAll((List<Object>) bulk.inputs());
+            }
+            return action.execute(input);
+        }
+        return interceptor.intercept(action, input, next);
+    }
+
+    /**
+     * Async counterpart of {@link #execute}: the terminal node calls {@code executeAsync} on
+     * {@link AsyncLogicAction}s and runs any other action synchronously.
+     */
+    @SuppressWarnings("unchecked")
+    public CompletionStage<Object> executeAsync(LogicAction<Object, Object> action, Object input) {
+        if (interceptor != null) {
+            return interceptor.interceptAsync(action, input, next);
+        }
+        try {
+            if (action instanceof AsyncLogicAction<?, ?> async) {
+                return ((AsyncLogicAction<Object, Object>) async).executeAsync(input);
+            }
+            return CompletableFuture.completedFuture(execute(action, input));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.dil.logicengine.enhancer;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the enhancer pipeline of an action class the first time it is executed and caches it.
+ * The cache is dropped whenever the {@link EnhancerRegistry} changes, which also bumps the
+ * {@link #generation()}.
+ */
+@Component
+public class ActionPipelineCompiler {
+
+    private final EnhancerRegistry registry;
+    private final Map<Class<?>, ActionPipeline> pipelines = new ConcurrentHashMap<>();
+    private final AtomicInteger generation = new AtomicInteger();
+
+    public ActionPipelineCompiler(EnhancerRegistry registry) {
+        this.registry = registry;
+        registry.onChange(() -> {
+            pipelines.clear();
+            generation.incrementAndGet();
+        });
+    }
+
+    public ActionPipeline pipelineFor(Class<?> actionClass) {
+        ActionPipeline pipeline = pipelines.get(actionClass);
+        if (pipeline == null) {
+            pipeline = pipelines.computeIfAbsent(actionClass, this::compile);
+        }
+        return pipeline;
+    }
+
+    /**
+     * Changes whenever the cached pipelines were dropped. Holders of pipelines obtained earlier compare it
+     * against the generation they were built at instead of registering a listener, so they stay collectable.
+     */
+    public int generation() {
+        return generation.get();
+    }
+
+    private ActionPipeline compile(Class<?> actionClass) {
+        ActionMetadata metadata = ActionMetadata.of(actionClass);
+        List<ActionEnhancer> enhancers = registry.getEnhancers();
+
+        // Build inside out so the first enhancer ends up as the outermost node
+        ActionPipeline pipeline = ActionPipeline.terminal(metadata);
+        for (int i = enhancers.size() - 1; i >= 0; i--) {
+            ActionEnhancer enhancer = enhancers.get(i);
+            if (enhancer.supports(metadata)) {
+                pipeline = new ActionPipeline(metadata, enhancer.compile(metadata), pipeline);
+            }
+        }
+        return pipeline;
+    }
+}
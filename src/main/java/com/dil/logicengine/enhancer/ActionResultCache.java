@@ -0,0 +1,103 @@
+package com.dil.logicengine.enhancer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache with a fixed time to live, one instance per cacheable action class.
+ * <p>
+ * Keys are spread over up to {@value #MAX_STRIPES} independently locked stripes, each an access-ordered map
+ * holding its share of {@code maxSize}, so concurrent hits on different keys rarely contend. Eviction is LRU
+ * within a stripe; small caches get fewer stripes, down to one, so their eviction order stays exact.
+ */
+public class ActionResultCache {
+
+    /**
+     * Stands in for a cached {@code null} result.
+     */
+    static final Object NULL = new Object();
+
+    private static final int MAX_STRIPES = 16;
+    // Below this many entries per stripe, stripes are merged rather than made smaller
+    private static final int MIN_STRIPE_SIZE = 8;
+
+    private final long ttlNanos;
+    private final Runnable onEviction;
+    private final Stripe[] stripes;
+
+    public ActionResultCache(int maxSize, long ttlNanos, Runnable onEviction) {
+        this.ttlNanos = ttlNanos;
+        this.onEviction = onEviction;
+        int count = Integer.highestOneBit(Math.clamp(maxSize / MIN_STRIPE_SIZE, 1, MAX_STRIPES));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            // The first stripes take the remainder, so the capacities add up to maxSize
+            stripes[i] = new Stripe(maxSize / count + (i < maxSize % count ? 1 : 0));
+        }
+    }
+
+    /**
+     * Returns the cached value, {@link #NULL} for a cached {@code null}, or {@code null} on a miss.
+     */
+    public Object get(Object key) {
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            Entry entry = stripe.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.storedAt > ttlNanos) {
+                stripe.remove(key);
+                onEviction.run();
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    public void put(Object key, Object value) {
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            stripe.put(key, new Entry(value == null ? NULL : value, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Sum of the stripe sizes; not a snapshot across stripes.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeOf(Object key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private final class Stripe extends LinkedHashMap<Object, Entry> {
+        private final int maxSize;
+
+        Stripe(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+            if (size() > maxSize) {
+                onEviction.run();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private record Entry(Object value, long storedAt) {
+    }
+}
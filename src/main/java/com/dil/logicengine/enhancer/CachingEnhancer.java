@@ -0,0 +1,102 @@
+package com.dil.logicengine.enhancer;
+
+import com.dil.logicengine.annotations.CacheableAction;
+import com.dil.logicengine.api.BulkRequest;
+import com.dil.logicengine.api.LogicAction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memoizes results of {@link CacheableAction} actions by input. Hits return before any other enhancer runs.
+ * Hits, misses, evictions and size are exported per action as {@code logicengine.action.cache.*}.
+ * <p>
+ * The cache of an action class outlives its pipeline: a recompile after an enhancer change picks up the same
+ * cache, its entries and the size gauge bound to it.
+ */
+@Component
+@RequiredArgsConstructor
+public class CachingEnhancer implements ActionEnhancer {
+
+    public static final int ORDER = 50;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, ActionResultCache> caches = new ConcurrentHashMap<>();
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public boolean supports(ActionMetadata metadata) {
+        return metadata.getActionClass().isAnnotationPresent(CacheableAction.class);
+    }
+
+    @Override
+    public ActionInterceptor compile(ActionMetadata metadata) {
+        CacheableAction config = metadata.getActionClass().getAnnotation(CacheableAction.class);
+        String action = metadata.getName();
+
+        Counter hits = Counter.builder("logicengine.action.cache.gets")
+                .tag("action", action).tag("result", "hit").register(meterRegistry);
+        Counter misses = Counter.builder("logicengine.action.cache.gets")
+                .tag("action", action).tag("result", "miss").register(meterRegistry);
+        Counter evictions = Counter.builder("logicengine.action.cache.evictions")
+                .tag("action", action).register(meterRegistry);
+        ActionResultCache cache = caches.computeIfAbsent(metadata.getActionClass(), actionClass -> {
+            ActionResultCache created = new ActionResultCache(
+                    config.maxSize(), TimeUnit.MILLISECONDS.toNanos(config.ttlMillis()), evictions::increment);
+            Gauge.builder("logicengine.action.cache.size", created, ActionResultCache::size)
+                    .tag("action", action).register(meterRegistry);
+            return created;
+        });
+
+        return new ActionInterceptor() {
+            @Override
+            public Object intercept(LogicAction<Object, Object> target, Object input, ActionPipeline next) {
+                if (!cacheable(input)) {
+                    return next.execute(target, input);
+                }
+                Object cached = cache.get(input);
+                if (cached != null) {
+                    hits.increment();
+                    return cached == ActionResultCache.NULL ? null : cached;
+                }
+                misses.increment();
+                Object result = next.execute(target, input);
+                cache.put(input, result);
+                return result;
+            }
+
+            @Override
+            public CompletionStage<Object> interceptAsync(LogicAction<Object, Object> target, Object input, ActionPipeline next) {
+                if (!cacheable(input)) {
+                    return next.executeAsync(target, input);
+                }
+                Object cached = cache.get(input);
+                if (cached != null) {
+                    hits.increment();
+                    return CompletableFuture.completedFuture(cached == ActionResultCache.NULL ? null : cached);
+                }
+                misses.increment();
+                return next.executeAsync(target, input).thenApply(result -> {
+                    cache.put(input, result);
+                    return result;
+                });
+            }
+        };
+    }
+
+    private static boolean cacheable(Object input) {
+        return input != null && !(input instanceof BulkRequest<?>);
+    }
+}
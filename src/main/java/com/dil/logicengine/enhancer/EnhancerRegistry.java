@@ -0,0 +1,42 @@
+package com.dil.logicengine.enhancer;
+
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Holds the {@link ActionEnhancer}s applied to actions, ordered outermost first. All enhancer beans in
+ * the context are picked up automatically; {@link #register} adds more at runtime.
+ */
+@Component
+public class EnhancerRegistry {
+
+    // Replaced as a whole, never modified, so readers see either the old or the new list
+    private volatile List<ActionEnhancer> enhancers;
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    public EnhancerRegistry(List<ActionEnhancer> enhancers) {
+        List<ActionEnhancer> sorted = new ArrayList<>(enhancers);
+        AnnotationAwareOrderComparator.sort(sorted);
+        this.enhancers = List.copyOf(sorted);
+    }
+
+    public synchronized void register(ActionEnhancer enhancer) {
+        List<ActionEnhancer> sorted = new ArrayList<>(enhancers);
+        sorted.add(enhancer);
+        AnnotationAwareOrderComparator.sort(sorted);
+        enhancers = List.copyOf(sorted);
+        changeListeners.forEach(Runnable::run);
+    }
+
+    public List<ActionEnhancer> getEnhancers() {
+        return enhancers;
+    }
+
+    void onChange(Runnable listener) {
+        changeListeners.add(listener);
+    }
+}
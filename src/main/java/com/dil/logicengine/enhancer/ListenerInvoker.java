@@ -0,0 +1,61 @@
+package com.dil.logicengine.enhancer;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Typed entry point to a {@code @LogicEngineListener} method, bound to its bean once at startup.
+ * <p>
+ * {@link #bind} spins a class implementing this interface that calls the method directly (the same way
+ * a lambda is compiled), so the per-record call is a plain interface call the JIT can inline. If the
+ * method cannot be bound that way it falls back to an exact-typed {@link MethodHandle}.
+ * Exceptions thrown by the listener method are not wrapped in {@code InvocationTargetException}.
+ */
+@FunctionalInterface
+public interface ListenerInvoker {
+
+    void invoke(Object payload);
+
+    static ListenerInvoker bind(Object bean, Method method) {
+        if (method.getParameterCount() != 1) {
+            throw new IllegalArgumentException("Listener method " + method + " must take exactly one payload parameter");
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+
+            Class<?> parameterType = method.getParameterTypes()[0];
+            if (!parameterType.isPrimitive()) {
+                try {
+                    return (ListenerInvoker) LambdaMetafactory.metafactory(
+                                    lookup,
+                                    "invoke",
+                                    MethodType.methodType(ListenerInvoker.class, method.getDeclaringClass()),
+                                    MethodType.methodType(void.class, Object.class),
+                                    handle,
+                                    MethodType.methodType(void.class, parameterType))
+                            .getTarget()
+                            .invoke(bean);
+                } catch (Throwable ignored) {
+                    // Fall through to the method handle below
+                }
+            }
+
+            MethodHandle bound = handle.bindTo(bean).asType(MethodType.methodType(void.class, Object.class));
+            return payload -> {
+                try {
+                    bound.invokeExact(payload);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            };
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot bind listener method " + method, e);
+        }
+    }
+}
@@ -1,24 +1,138 @@
 package com.dil.logicengine.enhancer;
 
-import com.dil.logicengine.api.BaseAction;
+import com.dil.logicengine.annotations.ActionLogging;
 import com.dil.logicengine.api.LogicAction;
-import lombok.RequiredArgsConstructor;
+import com.dil.logicengine.config.LoggingProperties;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import org.slf4j.MDC;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.stereotype.Component;
 
-@RequiredArgsConstructor
-public class LoggingEnhancer<I, O> extends BaseAction<I, O> {
+import java.util.concurrent.CompletionStage;
 
-    private final LogicAction<I, O> delegate;
+/**
+ * Writes an entering and an exiting line around each action, at a level resolved per action class when the
+ * pipeline is compiled: {@code logicengine.logging.actions.<SimpleName>}, then {@link ActionLogging}, then
+ * {@code logicengine.logging.level}. Actions resolved to {@code OFF} get no interceptor at all.
+ * <p>
+ * The {@code traceid}/{@code spanid}/{@code action} MDC entries are only written while the level is enabled,
+ * and the caller's values are restored afterwards.
+ */
+@Component
+public class LoggingEnhancer implements ActionEnhancer {
+
+    public static final int ORDER = 200;
+
+    private static final String ENTERING = "Entering Enhancer: " + LoggingEnhancer.class.getSimpleName();
+    private static final String EXITING = "Exiting Enhancer: " + LoggingEnhancer.class.getSimpleName();
+    private static final String EXCEPTION = "Exception in Enhancer: " + LoggingEnhancer.class.getSimpleName() + " → {}";
+    private static final String[] MDC_KEYS = {"traceid", "spanid", "action"};
+
+    private final ActionLogger log = new ActionLogger(LoggingEnhancer.class);
+    private final LoggingProperties properties;
+
+    public LoggingEnhancer(LoggingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public boolean supports(ActionMetadata metadata) {
+        return levelFor(metadata) != LogLevel.OFF;
+    }
 
     @Override
-    public O execute(I input) {
-        log.info("Entering Enhancer: " + this.getClass().getSimpleName());
-        try {
-            O result = delegate.execute(input);
-            log.info("Exiting Enhancer: " + this.getClass().getSimpleName());
-            return result;
-        } catch (Exception e) {
-            log.info("Exception in Enhancer: " + this.getClass().getSimpleName() + " → " + e.getMessage());
-            throw e;
+    public ActionInterceptor compile(ActionMetadata metadata) {
+        LogLevel level = levelFor(metadata);
+        String actionName = metadata.getName();
+
+        return new ActionInterceptor() {
+            @Override
+            public Object intercept(LogicAction<Object, Object> action, Object input, ActionPipeline next) {
+                if (!log.isEnabled(level)) {
+                    return next.execute(action, input);
+                }
+                String[] previousMdc = putMdc(actionName);
+                try {
+                    log.log(level, ENTERING);
+                    Object result = next.execute(action, input);
+                    log.log(level, EXITING);
+                    return result;
+                } catch (Exception e) {
+                    log.log(level, EXCEPTION, e.getMessage());
+                    throw e;
+                } finally {
+                    restoreMdc(previousMdc);
+                }
+            }
+
+            @Override
+            public CompletionStage<Object> interceptAsync(LogicAction<Object, Object> action, Object input, ActionPipeline next) {
+                if (!log.isEnabled(level)) {
+                    return next.executeAsync(action, input);
+                }
+                String[] previousMdc = putMdc(actionName);
+                try {
+                    log.log(level, ENTERING);
+                    // Captured now: the stage may complete on another thread, after this span is no longer current
+                    SpanContext spanContext = Span.current().getSpanContext();
+                    return next.executeAsync(action, input).whenComplete((result, error) -> {
+                        String[] callbackMdc = putMdc(actionName, spanContext);
+                        try {
+                            if (error == null) {
+                                log.log(level, EXITING);
+                            } else {
+                                log.log(level, EXCEPTION, error.getMessage());
+                            }
+                        } finally {
+                            restoreMdc(callbackMdc);
+                        }
+                    });
+                } finally {
+                    restoreMdc(previousMdc);
+                }
+            }
+        };
+    }
+
+    private LogLevel levelFor(ActionMetadata metadata) {
+        LogLevel configured = properties.getActions().get(metadata.getName());
+        if (configured != null) {
+            return configured;
+        }
+        ActionLogging annotation = metadata.getActionClass().getAnnotation(ActionLogging.class);
+        return annotation != null ? annotation.value() : properties.getLevel();
+    }
+
+    private static String[] putMdc(String actionName) {
+        return putMdc(actionName, Span.current().getSpanContext());
+    }
+
+    private static String[] putMdc(String actionName, SpanContext spanContext) {
+        String[] previous = new String[MDC_KEYS.length];
+        for (int i = 0; i < MDC_KEYS.length; i++) {
+            previous[i] = MDC.get(MDC_KEYS[i]);
+        }
+        if (spanContext.isValid()) {
+            MDC.put("traceid", spanContext.getTraceId());
+            MDC.put("spanid", spanContext.getSpanId());
+        }
+        MDC.put("action", actionName);
+        return previous;
+    }
+
+    private static void restoreMdc(String[] previous) {
+        for (int i = 0; i < MDC_KEYS.length; i++) {
+            if (previous[i] == null) {
+                MDC.remove(MDC_KEYS[i]);
+            } else {
+                MDC.put(MDC_KEYS[i], previous[i]);
+            }
         }
     }
 }
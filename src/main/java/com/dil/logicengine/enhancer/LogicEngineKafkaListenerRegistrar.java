@@ -1,111 +1,640 @@
 package com.dil.logicengine.enhancer;
 
 import com.dil.logicengine.annotations.DeserialisationType;
+import com.dil.logicengine.api.AvroDeserializer;
+import com.dil.logicengine.api.CustomDeserializer;
+import com.dil.logicengine.api.FlowDeadline;
+import com.dil.logicengine.api.MessageContext;
 import com.dil.logicengine.annotations.LogicEngineListener;
+import com.dil.logicengine.annotations.ProcessingMode;
 import com.dil.logicengine.config.OtelConfiguration;
+import com.dil.logicengine.config.TracingLevel;
+import com.dil.logicengine.config.TracingProperties;
+import com.dil.logicengine.deadletter.DeadLetterPublisher;
+import com.dil.logicengine.deadletter.RetryTopics;
+import com.dil.logicengine.flowcontrol.AdaptiveFlowController;
+import com.dil.logicengine.timeout.TimeoutProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Scope;
 import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.slf4j.MDC;
-import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.event.EventListener;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.AcknowledgingConsumerAwareMessageListener;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.BatchMessageListener;
 import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.listener.MessageListener;
 import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+import org.springframework.util.backoff.ExponentialBackOff;
+
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 
 @Component
 @RequiredArgsConstructor
 public class LogicEngineKafkaListenerRegistrar {
 
+    private static final AttributeKey<Long> PARTITION = AttributeKey.longKey("messaging.kafka.partition");
+    private static final AttributeKey<Long> OFFSET = AttributeKey.longKey("messaging.kafka.offset");
+    private static final AttributeKey<Long> BATCH_COUNT = AttributeKey.longKey("messaging.batch.message_count");
+    private static final Duration FORWARD_INITIAL_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration FORWARD_MAX_BACKOFF = Duration.ofSeconds(10);
+
     private final ApplicationContext context;
     private final ConcurrentKafkaListenerContainerFactory<String, String> factory;
     private final ObjectMapper objectMapper;
-   // private final AvroDeserializer avroDeserializer;
-   // private final CustomDeserializer customDeserializer;
+    private final AvroDeserializer avroDeserializer;
+    private final TracingProperties tracingProperties;
+    private final TimeoutProperties timeoutProperties;
+    private final LogicEngineListenerCollector listenerCollector;
+    private final AdaptiveFlowController flowController;
+    private final DeadLetterPublisher deadLetterPublisher;
+    private final UnforwardedRecords unforwardedRecords = new UnforwardedRecords();
    private final ActionLogger log = new ActionLogger(LogicEngineKafkaListenerRegistrar.class);
    private final Tracer tracer = OtelConfiguration.getTracer();
 
     @EventListener(ApplicationReadyEvent.class)
     public void registerListeners() {
+        // Values are consumed as raw bytes and handed straight to the configured deserializer
+        ConsumerFactory<String, byte[]> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                factory.getConsumerFactory().getConfigurationProperties(),
+                new StringDeserializer(),
+                new ByteArrayDeserializer());
+
+        Map<String, Object> consumerConfig = consumerFactory.getConfigurationProperties();
+        long pollBudgetMs = (long) (configValue(consumerConfig, ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, 300_000)
+                * timeoutProperties.getPollIntervalShare());
+        long maxPollRecords = configValue(consumerConfig, ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+
+        List<ConcurrentMessageListenerContainer<String, byte[]>> containers = new ArrayList<>();
+        for (LogicEngineListenerCollector.ListenerEndpoint endpoint : listenerCollector.getEndpoints()) {
+            Object bean = endpoint.bean();
+            Method method = endpoint.method();
+            LogicEngineListener ann = endpoint.annotation();
+            RetryTopics topics = RetryTopics.of(ann);
+
+            // Build Kafka container
+            ContainerProperties props = new ContainerProperties(ann.topic());
+            props.setGroupId(ann.groupId());
+
+            if (ann.batch()) {
+                props.getKafkaConsumerProperties().setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(ann.batchSize()));
+                props.getKafkaConsumerProperties().setProperty(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, String.valueOf(ann.maxWait()));
+            } else if (ann.processing() != ProcessingMode.SEQUENTIAL) {
+                // Records are acknowledged from worker threads; async acks commit only the contiguous prefix
+                props.setAckMode(ContainerProperties.AckMode.MANUAL);
+                props.setAsyncAcks(true);
+            }
+
+            ConcurrentMessageListenerContainer<String, byte[]> container =
+                    new ConcurrentMessageListenerContainer<>(consumerFactory, props);
+            if (ann.batch()) {
+                container.setupMessageListener(batchListener(bean, method, ann, topics, deadline(ann, pollBudgetMs)));
+            } else if (ann.processing() == ProcessingMode.SEQUENTIAL) {
+                // Records of a poll run one after another, so each gets its share of the poll budget
+                Duration deadline = deadline(ann, pollBudgetMs / Math.max(1, maxPollRecords));
+                Consumer<ConsumerRecord<String, byte[]>> handler = recordHandler(bean, method, ann, topics, deadline, false);
+                container.setupMessageListener((MessageListener<String, byte[]>) record -> {
+                    flowController.acquire(1);
+                    handler.accept(record);
+                });
+            } else {
+                // Saturated dispatchers stop fetching; the flow controller resumes once neither side holds a pause
+                OrderedRecordDispatcher<String, byte[]> dispatcher = new OrderedRecordDispatcher<>(
+                        ann.processing(), ann.maxInFlight(), OrderedRecordDispatcher.DEFAULT_ADMISSION_TIMEOUT,
+                        () -> flowController.pauseSaturated(container),
+                        () -> flowController.resumeSaturated(container),
+                        recordHandler(bean, method, ann, topics, deadline(ann, pollBudgetMs), true));
+                container.setupMessageListener((AcknowledgingMessageListener<String, byte[]>) (record, acknowledgment) -> {
+                    // Queued records count as in flight; the handler releases them once done
+                    flowController.acquire(1);
+                    try {
+                        dispatcher.dispatch(record, acknowledgment);
+                    } catch (RuntimeException e) {
+                        flowController.release(1, 0);
+                        throw e;
+                    }
+                });
+            }
+
+            if (ann.batch() || ann.processing() == ProcessingMode.SEQUENTIAL) {
+                container.setCommonErrorHandler(errorHandler());
+            }
+            container.setConcurrency(ann.concurrency());
+            container.setBeanName(ann.groupId() + "-" + ann.topic() + "-" + method.getName());
+            flowController.register(container);
+            containers.add(container);
+            log.info("Starting Kafka container for topic={} groupId={} method={} batch={} processing={}",
+                    ann.topic(), ann.groupId(), method.getName(), ann.batch(), ann.processing());
+
+            Duration retryDeadline = deadline(ann, pollBudgetMs / Math.max(1, maxPollRecords));
+            for (RetryTopics.RetryTopic retry : topics.retries()) {
+                containers.add(retryContainer(consumerFactory, retry, recordHandler(bean, method, ann, topics, retryDeadline, false), ann, method));
+            }
+        }
+
+        // Starting a container waits for its consumer threads; start them all at once rather than one by one.
+        // Platform threads: consumer construction logs inside Kafka's synchronized AppInfoParser, which pins
+        // virtual threads and deadlocks once there are more containers than carriers
+        try (ExecutorService starter = Executors.newThreadPerTaskExecutor(
+                Thread.ofPlatform().name("logicengine-container-start-", 0).factory())) {
+            for (ConcurrentMessageListenerContainer<String, byte[]> container : containers) {
+                starter.execute(() -> startContainer(container));
+            }
+        }
+    }
+
+    private void startContainer(ConcurrentMessageListenerContainer<String, byte[]> container) {
+        String topic = String.join(",", container.getContainerProperties().getTopics());
+        try {
+            container.start();
+            log.info("Kafka container started for topic={} groupId={}", topic, container.getGroupId());
+        } catch (Exception e) {
+            log.error("Failed to start Kafka container for topic={}: {}", topic, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Consumes one retry topic. Records that are not yet due are not waited for on the consumer thread: the
+     * partition is rewound to the record, paused, and resumed once the record is due, so a retry topic never
+     * holds up the main topic or its own other partitions. Records are processed one at a time and acknowledged
+     * once handled; failures move on to the next retry topic or the dead-letter topic.
+     */
+    private ConcurrentMessageListenerContainer<String, byte[]> retryContainer(
+            ConsumerFactory<String, byte[]> consumerFactory,
+            RetryTopics.RetryTopic retry,
+            Consumer<ConsumerRecord<String, byte[]>> handler,
+            LogicEngineListener ann,
+            Method method) {
+        ContainerProperties props = new ContainerProperties(retry.name());
+        props.setGroupId(ann.groupId());
+        props.setAckMode(ContainerProperties.AckMode.MANUAL);
+        RewoundPartitions rewound = new RewoundPartitions();
+        props.setConsumerRebalanceListener(rewound);
+
+        ConcurrentMessageListenerContainer<String, byte[]> container =
+                new ConcurrentMessageListenerContainer<>(consumerFactory, props);
+        container.setupMessageListener((AcknowledgingConsumerAwareMessageListener<String, byte[]>) (record, acknowledgment, consumer) -> {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            if (rewound.skip(record, partition)) {
+                return;
+            }
+
+            long waitMs = DeadLetterPublisher.dueOf(record) - System.currentTimeMillis();
+            if (waitMs > 0) {
+                rewound.rewind(partition, record.offset());
+                consumer.seek(partition, record.offset());
+                container.pausePartition(partition);
+                CompletableFuture.delayedExecutor(waitMs, TimeUnit.MILLISECONDS)
+                        .execute(() -> container.resumePartition(partition));
+                return;
+            }
+
+            flowController.acquire(1);
+            handler.accept(record);
+            acknowledgment.acknowledge();
+        });
+        container.setCommonErrorHandler(errorHandler());
+        container.setConcurrency(ann.concurrency());
+        container.setBeanName(ann.groupId() + "-" + retry.name() + "-" + method.getName());
+        flowController.register(container);
+        log.info("Starting Kafka retry container for topic={} groupId={} method={} delayMs={}",
+                retry.name(), ann.groupId(), method.getName(), retry.delayMs());
+        return container;
+    }
+
+    /**
+     * @param workerThread whether records are handled off the container thread, by an {@link OrderedRecordDispatcher};
+     *                     a failed forward is then retried in place, since the container cannot seek back
+     */
+    private Consumer<ConsumerRecord<String, byte[]>> recordHandler(Object bean, Method method, LogicEngineListener ann,
+                                                                   RetryTopics topics, Duration deadline,
+                                                                   boolean workerThread) {
+        PayloadReader reader = payloadReader(ann);
+        ListenerInvoker bound = ListenerInvoker.bind(bean, method);
+        // Batch methods taking the whole poll get retried records one at a time
+        ListenerInvoker invoker = ann.batch() && List.class.isAssignableFrom(method.getParameterTypes()[0])
+                ? payload -> bound.invoke(Collections.singletonList(payload))
+                : bound;
+        String spanName = "KafkaListener:" + method.getName();
+        Attributes attributes = consumerAttributes(ann);
+
+        return record -> {
+            UnforwardedRecords.Outcome unforwarded = unforwardedRecords.take(record);
+            if (unforwarded != null) {
+                // The flow already ran; only its failure is still to be forwarded
+                try {
+                    if (!unforwarded.isHandled()) {
+                        forward(record, unforwarded.failure(), unforwarded.retryable(), topics);
+                    }
+                } finally {
+                    flowController.release(1, 0);
+                }
+                return;
+            }
+
+            long started = System.nanoTime();
+            Span span = startConsumerSpan(spanName);
+            if (span.isRecording()) {
+                span.setAllAttributes(attributes);
+                span.setAttribute(PARTITION, record.partition());
+                span.setAttribute(OFFSET, record.offset());
+            }
+
+            try (Scope scope = span.makeCurrent()) {
+                // Optional: set MDC context for logging
+                MDC.put("traceid", span.getSpanContext().getTraceId());
+                MDC.put("spanid", span.getSpanContext().getSpanId());
+                MDC.put("action", method.getName());
+
+                Object payload = read(reader, record);
+
+                // Payloads can be large or sensitive; only written when debugging
+                if (log.isDebugEnabled()) {
+                    log.debug("Kafka message received: topic={}, method={}, payload={}",
+                            record.topic(), method.getName(), payload);
+                }
+
+                try (Scope messageScope = MessageContext.withMessageId(messageIdOf(record));
+                     Scope deadlineScope = withDeadline(deadline)) {
+                    invoker.invoke(payload);
+                }
+
+            } catch (Exception e) {
+                span.recordException(e);
+                span.setStatus(StatusCode.ERROR);
+                log.error("Error while invoking method {}: {}", method.getName(), e.getMessage(), e);
+                if (workerThread) {
+                    forwardUntilSent(record, e, topics);
+                } else {
+                    forwardFailure(record, e, topics);
+                }
+            } finally {
+                span.end();
+                MDC.clear(); // Always clear to prevent leaking context
+                flowController.release(1, System.nanoTime() - started);
+            }
+        };
+    }
+
+    /**
+     * One span per poll. The whole poll is deserialized up front; the method then receives either the
+     * full list or each payload in turn, depending on its parameter type.
+     */
+    private BatchMessageListener<String, byte[]> batchListener(Object bean, Method method, LogicEngineListener ann,
+                                                               RetryTopics topics, Duration deadline) {
+        PayloadReader reader = payloadReader(ann);
+        String spanName = "KafkaBatchListener:" + method.getName();
+        boolean listPayload = List.class.isAssignableFrom(method.getParameterTypes()[0]);
+        ListenerInvoker invoker = ListenerInvoker.bind(bean, method);
+        Attributes attributes = consumerAttributes(ann);
+
+        return records -> {
+            long started = System.nanoTime();
+            flowController.acquire(records.size());
+            Span span = startConsumerSpan(spanName);
+            if (span.isRecording()) {
+                span.setAllAttributes(attributes);
+                span.setAttribute(BATCH_COUNT, records.size());
+            }
+
+            // Records of this poll whose failure could not be forwarded
+            Map<ConsumerRecord<String, byte[]>, ForwardFailedException> unforwarded = new HashMap<>();
+            try (Scope scope = span.makeCurrent();
+                 Scope deadlineScope = withDeadline(deadline)) {
+                MDC.put("traceid", span.getSpanContext().getTraceId());
+                MDC.put("spanid", span.getSpanContext().getSpanId());
+                MDC.put("action", method.getName());
+
+                List<ConsumerRecord<String, byte[]>> unhandled = new ArrayList<>(records.size());
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    UnforwardedRecords.Outcome outcome = unforwardedRecords.take(record);
+                    if (outcome == null) {
+                        unhandled.add(record);
+                    } else if (!outcome.isHandled()) {
+                        try {
+                            forward(record, outcome.failure(), outcome.retryable(), topics);
+                        } catch (ForwardFailedException e) {
+                            unforwarded.put(record, e);
+                        }
+                    }
+                }
+
+                List<Object> payloads = new ArrayList<>(unhandled.size());
+                List<ConsumerRecord<String, byte[]>> decoded = new ArrayList<>(unhandled.size());
+                for (ConsumerRecord<String, byte[]> record : unhandled) {
+                    try {
+                        payloads.add(read(reader, record));
+                        decoded.add(record);
+                    } catch (Exception e) {
+                        span.recordException(e);
+                        log.error("Skipping undeserializable record topic={} partition={} offset={}: {}",
+                                record.topic(), record.partition(), record.offset(), e.getMessage());
+                        forwardFailure(record, e, topics, unforwarded);
+                    }
+                }
 
-        String[] beanNames = context.getBeanDefinitionNames();
-        for (String beanName : beanNames) {
-            Object bean = context.getBean(beanName);
-            Class<?> beanClass = AopUtils.getTargetClass(bean); // Handle proxies
-
-            for (Method method : beanClass.getDeclaredMethods()) {
-                LogicEngineListener ann = method.getAnnotation(LogicEngineListener.class);
-                if (ann == null) continue;
-                Class<?> payloadType = ann.payloadType();
-                DeserialisationType deserialization = ann.deserialization();
-                // Build Kafka container
-                ContainerProperties props = new ContainerProperties(ann.topic());
-                props.setGroupId(ann.groupId());
-
-                props.setMessageListener((MessageListener<String, String>) record -> {
-                    Span span = tracer.spanBuilder("KafkaListener:" + method.getName())
-                            .setSpanKind(SpanKind.CONSUMER)
-                            .setAttribute("messaging.system", "kafka")
-                            .setAttribute("messaging.destination", record.topic())
-                            .setAttribute("messaging.destination_kind", "topic")
-                            .setAttribute("messaging.operation", "receive")
-                            .setAttribute("messaging.kafka.partition", record.partition())
-                            .setAttribute("messaging.kafka.offset", record.offset())
-                            .startSpan();
-
-                    try (Scope scope = span.makeCurrent()) {
-                        // Optional: set MDC context for logging
-                        MDC.put("traceid", span.getSpanContext().getTraceId());
-                        MDC.put("spanid", span.getSpanContext().getSpanId());
-                        MDC.put("action", method.getName());
-
-                        Object payload = switch (deserialization) {
-                            case JSON -> objectMapper.readValue(record.value(), payloadType);
-                            case STRING -> record.value();
-                        };
-
-                        log.info("Kafka message received: topic={}, method={}, payload={}",
-                                record.topic(), method.getName(), payload);
-
-                        method.setAccessible(true);
-                        method.invoke(bean, payload);
+                if (log.isDebugEnabled()) {
+                    log.debug("Kafka batch received: topic={}, method={}, size={}",
+                            ann.topic(), method.getName(), payloads.size());
+                }
 
+                if (listPayload) {
+                    try {
+                        invoker.invoke(payloads);
                     } catch (Exception e) {
                         span.recordException(e);
                         span.setStatus(StatusCode.ERROR);
                         log.error("Error while invoking method {}: {}", method.getName(), e.getMessage(), e);
-                    } finally {
-                        span.end();
-                        MDC.clear(); // Always clear to prevent leaking context
+                        // The poll failed as a whole; each record is retried on its own
+                        for (ConsumerRecord<String, byte[]> record : decoded) {
+                            forwardFailure(record, e, topics, unforwarded);
+                        }
                     }
-                });
+                } else {
+                    for (int i = 0; i < payloads.size(); i++) {
+                        try (Scope messageScope = MessageContext.withMessageId(messageIdOf(decoded.get(i)))) {
+                            invoker.invoke(payloads.get(i));
+                        } catch (Exception e) {
+                            span.recordException(e);
+                            span.setStatus(StatusCode.ERROR);
+                            log.error("Error while invoking method {}: {}", method.getName(), e.getMessage(), e);
+                            forwardFailure(decoded.get(i), e, topics, unforwarded);
+                        }
+                    }
+                }
+
+                if (!unforwarded.isEmpty()) {
+                    throw unforwardedBatch(records, unforwarded);
+                }
+            } catch (BatchListenerFailedException e) {
+                // The container commits the poll up to the first record that went nowhere and seeks back to it
+                span.recordException(e);
+                span.setStatus(StatusCode.ERROR);
+                throw e;
+            } catch (Exception e) {
+                span.recordException(e);
+                span.setStatus(StatusCode.ERROR);
+                log.error("Error while invoking method {}: {}", method.getName(), e.getMessage(), e);
+            } finally {
+                span.end();
+                MDC.clear();
+                flowController.release(records.size(), System.nanoTime() - started);
+            }
+        };
+    }
 
-                ConsumerFactory<String, String> consumerFactory = (ConsumerFactory<String, String>) factory.getConsumerFactory();
-                ConcurrentMessageListenerContainer<String, String> container =
-                        new ConcurrentMessageListenerContainer<>(consumerFactory, props);
+    private static Object read(PayloadReader reader, ConsumerRecord<String, byte[]> record) {
+        try {
+            return reader.read(record.value());
+        } catch (Exception e) {
+            throw new PayloadException(e);
+        }
+    }
+
+    /**
+     * Hands a failed record to its retry topics; records that cannot be read are not worth retrying. Throws
+     * {@link ForwardFailedException} if the record could not be forwarded, so the listener fails and the container
+     * seeks back to it instead of committing it.
+     */
+    private void forwardFailure(ConsumerRecord<String, byte[]> record, Exception failure, RetryTopics topics) {
+        if (!topics.isEnabled()) {
+            return;
+        }
+        forward(record, forwardedFailure(failure), isRetryable(failure), topics);
+    }
 
+    /**
+     * {@link #forwardFailure(ConsumerRecord, Exception, RetryTopics)} on a worker thread: the forward is retried
+     * with the error handler's backoff until the broker takes it, so the record is only acknowledged once its
+     * failure went somewhere. Virtual worker threads wait out the backoff without holding a carrier.
+     */
+    private void forwardUntilSent(ConsumerRecord<String, byte[]> record, Exception failure, RetryTopics topics) {
+        if (!topics.isEnabled()) {
+            return;
+        }
+        Exception forwarded = forwardedFailure(failure);
+        boolean retryable = isRetryable(failure);
+        BackOffExecution backOff = forwardBackOff().start();
+        while (true) {
+            try {
+                deadLetterPublisher.forward(record, forwarded, retryable, topics);
+                return;
+            } catch (KafkaException e) {
+                long waitMs = backOff.nextBackOff();
+                log.warn("Retrying forward of record topic={} partition={} offset={} in {}ms",
+                        record.topic(), record.partition(), record.offset(), waitMs);
                 try {
-                    log.info("Starting Kafka container for topic={} groupId={} method={}",
-                            ann.topic(), ann.groupId(), method.getName());
-                    container.start();
-                    log.info("Kafka container started for topic={} groupId={}",
-                            ann.topic(), ann.groupId());
-                } catch (Exception e) {
-                    log.error("Failed to start Kafka container for topic={}: {}", ann.topic(), e.getMessage(), e);
+                    Thread.sleep(waitMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    log.error("Interrupted while forwarding record topic={} partition={} offset={}; dropping it",
+                            record.topic(), record.partition(), record.offset());
+                    return;
                 }
             }
         }
     }
+
+    // Records that cannot be read are not worth retrying
+    private static Exception forwardedFailure(Exception failure) {
+        return failure instanceof PayloadException && failure.getCause() instanceof Exception cause ? cause : failure;
+    }
+
+    private static boolean isRetryable(Exception failure) {
+        return !(failure instanceof PayloadException) && DeadLetterPublisher.isRetryable(failure);
+    }
+
+    /**
+     * {@link #forwardFailure(ConsumerRecord, Exception, RetryTopics)} for a record of a batch; a record that could
+     * not be forwarded is collected rather than failing the rest of the batch.
+     */
+    private void forwardFailure(ConsumerRecord<String, byte[]> record, Exception failure, RetryTopics topics,
+                                Map<ConsumerRecord<String, byte[]>, ForwardFailedException> unforwarded) {
+        try {
+            forwardFailure(record, failure, topics);
+        } catch (ForwardFailedException e) {
+            unforwarded.put(record, e);
+        }
+    }
+
+    /**
+     * Remembers a record whose forward failed, so that only the forward is retried once the container has
+     * sought back to it.
+     */
+    private void forward(ConsumerRecord<String, byte[]> record, Exception failure, boolean retryable, RetryTopics topics) {
+        try {
+            deadLetterPublisher.forward(record, failure, retryable, topics);
+        } catch (KafkaException e) {
+            unforwardedRecords.failed(record, failure, retryable);
+            throw new ForwardFailedException(e);
+        }
+    }
+
+    /**
+     * Fails a batch at its first unforwarded record. The records after it were settled already and are skipped
+     * when the container delivers them again.
+     */
+    private BatchListenerFailedException unforwardedBatch(
+            List<ConsumerRecord<String, byte[]>> records,
+            Map<ConsumerRecord<String, byte[]>, ForwardFailedException> unforwarded) {
+        int first = -1;
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, byte[]> record = records.get(i);
+            if (first >= 0 && !unforwarded.containsKey(record)) {
+                unforwardedRecords.handled(record);
+            } else if (first < 0 && unforwarded.containsKey(record)) {
+                first = i;
+            }
+        }
+        ForwardFailedException cause = unforwarded.get(records.get(first));
+        return new BatchListenerFailedException(cause.getMessage(), cause, first);
+    }
+
+    /**
+     * Failed forwards are retried with a growing backoff until the broker takes them, never committed past; the
+     * flow itself is not run again (see {@link UnforwardedRecords}). Other listener failures keep the container's
+     * default handling.
+     */
+    private static DefaultErrorHandler errorHandler() {
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler();
+        errorHandler.setBackOffFunction((record, e) -> isForwardFailure(e) ? forwardBackOff() : null);
+        return errorHandler;
+    }
+
+    private static BackOff forwardBackOff() {
+        ExponentialBackOff backOff = new ExponentialBackOff(FORWARD_INITIAL_BACKOFF.toMillis(), 2);
+        backOff.setMaxInterval(FORWARD_MAX_BACKOFF.toMillis());
+        return backOff;
+    }
+
+    private static boolean isForwardFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ForwardFailedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Consumer spans exist at every tracing level except {@link TracingLevel#OFF}; attributes are only
+     * added by callers once the span turns out to be sampled.
+     */
+    private Span startConsumerSpan(String spanName) {
+        if (!tracingProperties.getLevel().traces(TracingLevel.ENGINE)) {
+            return Span.getInvalid();
+        }
+        return tracer.spanBuilder(spanName)
+                .setSpanKind(SpanKind.CONSUMER)
+                .startSpan();
+    }
+
+    private static Attributes consumerAttributes(LogicEngineListener ann) {
+        return Attributes.builder()
+                .put("messaging.system", "kafka")
+                .put("messaging.destination", ann.topic())
+                .put("messaging.destination_kind", "topic")
+                .put("messaging.operation", "receive")
+                .build();
+    }
+
+    /**
+     * Resolves the deserializer for a listener once, at registration time.
+     */
+    private PayloadReader payloadReader(LogicEngineListener ann) {
+        DeserialisationType deserialization = ann.deserialization();
+        Class<?> payloadType = ann.payloadType();
+        PayloadReader reader = switch (deserialization) {
+            case JSON -> {
+                ObjectReader objectReader = objectMapper.readerFor(payloadType);
+                yield objectReader::readValue;
+            }
+            case AVRO -> value -> avroDeserializer.deserialize(value, payloadType);
+            case STRING -> value -> new String(value, StandardCharsets.UTF_8);
+            case CUSTOM -> {
+                CustomDeserializer customDeserializer = context.getBean(ann.customDeserializer());
+                yield value -> customDeserializer.deserialize(value, payloadType);
+            }
+        };
+        // Tombstones carry no value
+        return value -> value == null ? null : reader.read(value);
+    }
+
+    /**
+     * Deadline of one invocation: the annotation's, or {@code derivedMs} if it asks for a derived one. Null when
+     * disabled.
+     */
+    private static Duration deadline(LogicEngineListener ann, long derivedMs) {
+        long deadlineMs = ann.deadline() < 0 ? derivedMs : ann.deadline();
+        return deadlineMs > 0 ? Duration.ofMillis(deadlineMs) : null;
+    }
+
+    private static Scope withDeadline(Duration deadline) {
+        return deadline == null ? Scope.noop() : FlowDeadline.within(deadline);
+    }
+
+    private static long configValue(Map<String, Object> config, String key, long defaultValue) {
+        Object value = config.get(key);
+        return value == null ? defaultValue : Long.parseLong(value.toString());
+    }
+
+    private static String messageIdOf(ConsumerRecord<String, byte[]> record) {
+        Header header = record.headers().lastHeader(MessageContext.MESSAGE_ID_HEADER);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface PayloadReader {
+        Object read(byte[] value) throws Exception;
+    }
+
+    private static final class PayloadException extends RuntimeException {
+        PayloadException(Exception cause) {
+            super("Cannot deserialize record: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static final class ForwardFailedException extends RuntimeException {
+        ForwardFailedException(KafkaException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package com.dil.logicengine.enhancer;
+
+import com.dil.logicengine.annotations.LogicEngineListener;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects {@link LogicEngineListener} methods as beans are initialized, for
+ * {@link LogicEngineKafkaListenerRegistrar} to start once the application is ready. Lazy beans that are never
+ * created are never looked at, and classes that cannot carry the annotation (JDK and framework types) are
+ * skipped without reflecting over their methods.
+ * <p>
+ * Has no dependencies on purpose: post-processors are created before other beans, and anything they depend on
+ * would miss post-processing.
+ */
+@Component
+public class LogicEngineListenerCollector implements BeanPostProcessor {
+
+    private final List<ListenerEndpoint> endpoints = new CopyOnWriteArrayList<>();
+    private final Set<Class<?>> nonAnnotatedClasses = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean); // Handle proxies
+        if (nonAnnotatedClasses.contains(targetClass)
+                || !AnnotationUtils.isCandidateClass(targetClass, LogicEngineListener.class)) {
+            return bean;
+        }
+
+        Map<Method, LogicEngineListener> methods = MethodIntrospector.selectMethods(targetClass,
+                (MethodIntrospector.MetadataLookup<LogicEngineListener>) method ->
+                        AnnotatedElementUtils.findMergedAnnotation(method, LogicEngineListener.class));
+        if (methods.isEmpty()) {
+            nonAnnotatedClasses.add(targetClass);
+            return bean;
+        }
+        methods.forEach((method, annotation) -> endpoints.add(new ListenerEndpoint(bean, method, annotation)));
+        return bean;
+    }
+
+    public List<ListenerEndpoint> getEndpoints() {
+        return List.copyOf(endpoints);
+    }
+
+    /**
+     * A listener method on the bean as exposed by the context, proxies included.
+     */
+    public record ListenerEndpoint(Object bean, Method method, LogicEngineListener annotation) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.dil.logicengine.enhancer;
+
+import com.dil.logicengine.annotations.ProcessingMode;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Runs records on virtual threads while keeping them ordered per lane (key or partition). Each lane is a
+ * chain of futures: a record starts once the previous record of the same lane has finished, whether that
+ * one succeeded or not, while different lanes progress independently.
+ * <p>
+ * Every record is acknowledged once its handler returns or throws; the handler is expected to have routed a
+ * failure by then. The container runs with async acks, so out-of-order acknowledgements are held back and
+ * offsets are only committed up to the in-order completion watermark. It also stops fetching until every record
+ * of the previous poll is acknowledged, so a record left unacknowledged would stall its consumer for good.
+ * <p>
+ * The container thread waits at most {@code admissionTimeout} for one of the {@code maxInFlight} slots. Past
+ * that the record is queued on its lane anyway and takes its slot on its worker thread, and {@code pause} is
+ * called so no further records are fetched; {@code resume} follows once half the slots are free again.
+ */
+public class OrderedRecordDispatcher<K, V> {
+
+    static final Duration DEFAULT_ADMISSION_TIMEOUT = Duration.ofMillis(100);
+
+    private final ProcessingMode mode;
+    private final Consumer<ConsumerRecord<K, V>> handler;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final long admissionTimeoutNanos;
+    private final Runnable pause;
+    private final Runnable resume;
+    private final AtomicBoolean saturated = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Object, CompletableFuture<Void>> lanes = new ConcurrentHashMap<>();
+
+    public OrderedRecordDispatcher(ProcessingMode mode, int maxInFlight, Consumer<ConsumerRecord<K, V>> handler) {
+        this(mode, maxInFlight, DEFAULT_ADMISSION_TIMEOUT, () -> {}, () -> {}, handler);
+    }
+
+    public OrderedRecordDispatcher(ProcessingMode mode, int maxInFlight, Duration admissionTimeout,
+                                   Runnable pause, Runnable resume, Consumer<ConsumerRecord<K, V>> handler) {
+        this.mode = mode;
+        this.handler = handler;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.admissionTimeoutNanos = admissionTimeout.toNanos();
+        this.pause = pause;
+        this.resume = resume;
+    }
+
+    /**
+     * Called on the container thread; waits at most the admission timeout. An interrupted wait still dispatches
+     * the record, unadmitted, and keeps the interrupt flag set.
+     */
+    public void dispatch(ConsumerRecord<K, V> record, Acknowledgment acknowledgment) {
+        boolean admitted = admit();
+        if (!admitted && saturated.compareAndSet(false, true)) {
+            pause.run();
+        }
+
+        Object lane = laneOf(record);
+        Runnable task = () -> {
+            if (!admitted) {
+                inFlight.acquireUninterruptibly();
+            }
+            try {
+                handler.accept(record);
+            } finally {
+                // The slot goes first, so an acknowledged record no longer counts as in flight
+                inFlight.release();
+                if (saturated.get() && inFlight() <= maxInFlight / 2 && saturated.compareAndSet(true, false)) {
+                    resume.run();
+                }
+                acknowledgment.acknowledge();
+            }
+        };
+
+        // handleAsync rather than thenRunAsync: a failed record must not cancel the rest of its lane
+        CompletableFuture<Void> tail = lanes.compute(lane, (key, previous) -> previous == null
+                ? CompletableFuture.runAsync(task, executor)
+                : previous.handleAsync((ignored, error) -> {
+                    task.run();
+                    return null;
+                }, executor));
+        // Drop the lane once it drains, unless a newer record has been chained in the meantime
+        tail.whenComplete((ignored, error) -> lanes.remove(lane, tail));
+    }
+
+    private boolean admit() {
+        try {
+            return inFlight.tryAcquire(admissionTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    private Object laneOf(ConsumerRecord<K, V> record) {
+        if (mode == ProcessingMode.KEY_ORDERED && record.key() != null) {
+            return new KeyLane(record.partition(), record.key());
+        }
+        return record.partition();
+    }
+
+    private record KeyLane(int partition, Object key) {
+    }
+}
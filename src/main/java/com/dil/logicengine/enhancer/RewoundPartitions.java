@@ -0,0 +1,59 @@
+package com.dil.logicengine.enhancer;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Partitions of a retry topic that were rewound to a record that is not due yet. The rest of the poll that
+ * record came in is skipped until the record is delivered again.
+ * <p>
+ * Entries are dropped when their partition is revoked, lost or assigned: after a rebalance the partition
+ * resumes from its committed offset, which need not be the offset it was rewound to, and a stale entry would
+ * otherwise skip every record of it. Shared by the consumers of a concurrent container; partitions are never
+ * owned by two of them at once, so each only touches its own entries.
+ */
+class RewoundPartitions implements ConsumerAwareRebalanceListener {
+
+    private final Map<TopicPartition, Long> rewound = new ConcurrentHashMap<>();
+
+    /**
+     * Whether {@code record} belongs to the remainder of a rewound poll. The rewound record itself coming back
+     * clears its partition's entry.
+     */
+    boolean skip(ConsumerRecord<?, ?> record, TopicPartition partition) {
+        Long rewoundTo = rewound.get(partition);
+        if (rewoundTo == null) {
+            return false;
+        }
+        if (record.offset() != rewoundTo) {
+            return true;
+        }
+        rewound.remove(partition);
+        return false;
+    }
+
+    void rewind(TopicPartition partition, long offset) {
+        rewound.put(partition, offset);
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        partitions.forEach(rewound::remove);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        partitions.forEach(rewound::remove);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        partitions.forEach(rewound::remove);
+    }
+}
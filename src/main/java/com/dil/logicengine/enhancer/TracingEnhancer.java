@@ -1,92 +1,132 @@
 package com.dil.logicengine.enhancer;
 
-import com.dil.logicengine.api.BaseAction;
 import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.config.OtelConfiguration;
+import com.dil.logicengine.config.TracingLevel;
+import com.dil.logicengine.config.TracingProperties;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Scope;
-import lombok.RequiredArgsConstructor;
-import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Field;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
-@RequiredArgsConstructor
-public class TracingEnhancer<I, O> extends BaseAction<I, O> {
-    private final LogicAction<I, O> delegate;
-    private final Tracer tracer;
+/**
+ * Owns the single span per action execution, named {@code Action.<SimpleName>}. Span name and attributes are
+ * built once per action class; result attributes and exception details are only recorded for sampled spans.
+ * Only active at {@link TracingLevel#ACTION}. Log correlation (MDC) is left to {@link LoggingEnhancer}, which
+ * runs inside this span.
+ */
+@Component
+public class TracingEnhancer implements ActionEnhancer {
+
+    public static final int ORDER = 100;
+
+    private static final AttributeKey<String> ACTION_RESULT = AttributeKey.stringKey("action.result");
+
+    private final Tracer tracer = OtelConfiguration.getTracer();
+    private final TracingProperties properties;
+
+    public TracingEnhancer(TracingProperties properties) {
+        this.properties = properties;
+    }
 
     @Override
-    public O execute(I request) {
-        LogicAction<I, O> actualAction = unwrapToInnermost(delegate);
-        String actualActionName = actualAction.getClass().getSimpleName();
-
-        // Create a span that clearly identifies this as an enhancer operation
-        String spanName = "TracingEnhancer." + actualActionName;
-        Span span = tracer.spanBuilder(spanName)
-                .setAttribute("action.class", actualActionName)
-                .setAttribute("action.type", "logic_action")
-                .setAttribute("enhancer.type", "tracing")
-                .startSpan();
+    public int getOrder() {
+        return ORDER;
+    }
 
-        try (Scope scope = span.makeCurrent()) {
-            var ctx = span.getSpanContext();
-            MDC.put("traceid", ctx.getTraceId());
-            MDC.put("spanid", ctx.getSpanId());
-            MDC.put("action", actualActionName);
+    @Override
+    public boolean supports(ActionMetadata metadata) {
+        return properties.getLevel().traces(TracingLevel.ACTION);
+    }
 
-            log.info("Entering Enhancer: " + this.getClass().getSimpleName());
+    @Override
+    public ActionInterceptor compile(ActionMetadata metadata) {
+        String actionName = metadata.getName();
+        String spanName = "Action." + actionName;
+        Attributes attributes = Attributes.builder()
+                .put("action.class", actionName)
+                .put("action.type", actionType(metadata))
+                .build();
 
-            O result = delegate.execute(request);
+        return new ActionInterceptor() {
+            @Override
+            public Object intercept(LogicAction<Object, Object> action, Object input, ActionPipeline next) {
+                Span span = startSpan(spanName, attributes);
 
-            // Mark span as successful
-            span.setStatus(StatusCode.OK);
-            span.setAttribute("action.result", "success");
+                try (Scope scope = span.makeCurrent()) {
+                    Object result = next.execute(action, input);
 
-            log.info("Exiting Enhancer: " + this.getClass().getSimpleName());
-            return result;
+                    // Mark span as successful
+                    markSuccess(span);
+                    return result;
 
-        } catch (Exception e) {
-            // Record the exception in the span
-            span.recordException(e);
-            span.setStatus(StatusCode.ERROR, e.getMessage());
-            span.setAttribute("action.result", "error");
-            throw e;
-        } finally {
-            MDC.clear();
-            span.end();
+                } catch (Exception e) {
+                    // Record the exception in the span
+                    markError(span, e);
+                    throw e;
+                } finally {
+                    span.end();
+                }
+            }
+
+            @Override
+            public CompletionStage<Object> interceptAsync(LogicAction<Object, Object> action, Object input, ActionPipeline next) {
+                Span span = startSpan(spanName, attributes);
+
+                CompletionStage<Object> stage;
+                try (Scope scope = span.makeCurrent()) {
+                    stage = next.executeAsync(action, input);
+                } catch (RuntimeException e) {
+                    stage = CompletableFuture.failedFuture(e);
+                }
+
+                // The span stays open until the action has actually completed
+                return stage.whenComplete((result, error) -> {
+                    if (error == null) {
+                        markSuccess(span);
+                    } else {
+                        markError(span, error);
+                    }
+                    span.end();
+                });
+            }
+        };
+    }
+
+    private Span startSpan(String spanName, Attributes attributes) {
+        return tracer.spanBuilder(spanName)
+                .setAllAttributes(attributes)
+                .startSpan();
+    }
+
+    private static void markSuccess(Span span) {
+        if (span.isRecording()) {
+            span.setStatus(StatusCode.OK);
+            span.setAttribute(ACTION_RESULT, "success");
         }
     }
 
-    /**
-     * Unwraps nested enhancers by reflectively getting the `delegate` field.
-     */
-    @SuppressWarnings("unchecked")
-    private LogicAction<I, O> unwrapToInnermost(LogicAction<I, O> action) {
-        try {
-            while (true) {
-                Field delegateField = findDelegateField(action.getClass());
-                if (delegateField == null) break;
-
-                delegateField.setAccessible(true);
-                Object next = delegateField.get(action);
-                if (!(next instanceof LogicAction)) break;
-
-                action = (LogicAction<I, O>) next;
-            }
-        } catch (Exception e) {
-            // Fall back silently if reflection fails
-            return action;
+    private static void markError(Span span, Throwable e) {
+        if (span.isRecording()) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            span.setAttribute(ACTION_RESULT, "error");
         }
-        return action;
     }
 
-    private Field findDelegateField(Class<?> clazz) {
-        for (Field field : clazz.getDeclaredFields()) {
-            if (LogicAction.class.isAssignableFrom(field.getType()) && field.getName().equals("delegate")) {
-                return field;
-            }
+    private static String actionType(ActionMetadata metadata) {
+        if (metadata.isExternal()) {
+            return "external_action";
+        }
+        if (metadata.isDb()) {
+            return "db_action";
         }
-        return null;
+        return "logic_action";
     }
-}
\ No newline at end of file
+}
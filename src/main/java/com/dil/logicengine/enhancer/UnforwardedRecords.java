@@ -0,0 +1,51 @@
+package com.dil.logicengine.enhancer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records whose flow already ran but whose failure could not be forwarded to a retry or dead-letter topic. The
+ * container seeks back to such a record instead of committing it; when it is delivered again only the forward is
+ * retried, so a flow that is not idempotent does not run twice. Records of a batch that were settled after the
+ * first unforwarded one are remembered as handled, since the container seeks back to them as well.
+ */
+class UnforwardedRecords {
+
+    private final Map<RecordId, Outcome> outcomes = new ConcurrentHashMap<>();
+
+    void failed(ConsumerRecord<?, ?> record, Exception failure, boolean retryable) {
+        outcomes.put(RecordId.of(record), new Outcome(failure, retryable));
+    }
+
+    void handled(ConsumerRecord<?, ?> record) {
+        outcomes.put(RecordId.of(record), Outcome.HANDLED);
+    }
+
+    /**
+     * What is left to do for a redelivered record, or null if its flow has not run yet.
+     */
+    Outcome take(ConsumerRecord<?, ?> record) {
+        return outcomes.isEmpty() ? null : outcomes.remove(RecordId.of(record));
+    }
+
+    /**
+     * @param failure the failure still to forward, or null if the record was handled
+     */
+    record Outcome(Exception failure, boolean retryable) {
+
+        static final Outcome HANDLED = new Outcome(null, false);
+
+        boolean isHandled() {
+            return failure == null;
+        }
+    }
+
+    private record RecordId(String topic, int partition, long offset) {
+
+        static RecordId of(ConsumerRecord<?, ?> record) {
+            return new RecordId(record.topic(), record.partition(), record.offset());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.dil.logicengine.flowcontrol;
+
+import com.dil.logicengine.enhancer.ActionLogger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Backpressure for the listener containers. The registrar reports every record when it is handed to a listener
+ * ({@link #acquire}) and when it has been handled ({@link #release}); records queued in an ordered dispatcher
+ * count as in flight. Once in-flight records reach the limit every container is paused, so its consumers keep
+ * their partitions but stop fetching, and resumed when they drop to {@code resume-ratio} of it.
+ * <p>
+ * A saturated ordered dispatcher pauses its own container through {@link #pauseSaturated}. A container is only
+ * resumed once neither the limit nor its dispatcher holds it paused.
+ * <p>
+ * The limit follows AIMD: each sample interval it is cut by {@code backoff-ratio} if the average handling time
+ * exceeded {@code latency-threshold}, and otherwise grows by one if at least half of it was in use.
+ * <p>
+ * {@code max.poll.records} cannot change on a running consumer, so the poll size stays as configured; pausing
+ * bounds how many polls pile up instead.
+ * <p>
+ * Meters: {@code logicengine.flowcontrol.limit}, {@code logicengine.flowcontrol.in_flight},
+ * {@code logicengine.flowcontrol.paused} and {@code logicengine.flowcontrol.pauses}.
+ */
+@Component
+public class AdaptiveFlowController {
+
+    private final ActionLogger log = new ActionLogger(AdaptiveFlowController.class);
+    private final FlowControlProperties properties;
+    private final boolean enabled;
+    private final long latencyThresholdNanos;
+    private final List<MessageListenerContainer> containers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder handled = new LongAdder();
+    private final LongAdder handlingNanos = new LongAdder();
+    private final AtomicBoolean paused = new AtomicBoolean();
+    // Serializes pausing and resuming, so a container is never resumed while one side still holds it paused
+    private final ReentrantLock pauseLock = new ReentrantLock();
+    // Guarded by pauseLock
+    private final Set<MessageListenerContainer> saturated = new HashSet<>();
+    private final Counter pauses;
+    private volatile int limit;
+
+    public AdaptiveFlowController(FlowControlProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.enabled = properties.isEnabled();
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.limit = Math.clamp(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit());
+
+        Gauge.builder("logicengine.flowcontrol.limit", this, AdaptiveFlowController::getLimit)
+                .description("Records allowed in flight before listener containers pause")
+                .register(meterRegistry);
+        Gauge.builder("logicengine.flowcontrol.in_flight", inFlight, AtomicInteger::get)
+                .description("Records handed to listeners and not yet handled")
+                .register(meterRegistry);
+        Gauge.builder("logicengine.flowcontrol.paused", paused, p -> p.get() ? 1 : 0)
+                .description("Whether the listener containers are paused")
+                .register(meterRegistry);
+        this.pauses = Counter.builder("logicengine.flowcontrol.pauses")
+                .description("Times the listener containers were paused for backpressure")
+                .register(meterRegistry);
+    }
+
+    public void register(MessageListenerContainer container) {
+        containers.add(container);
+    }
+
+    /**
+     * {@code records} were handed to a listener.
+     */
+    public void acquire(int records) {
+        if (!enabled) {
+            return;
+        }
+        int current = inFlight.addAndGet(records);
+        peakInFlight.accumulateAndGet(current, Math::max);
+        if (current >= limit) {
+            pause();
+        }
+    }
+
+    /**
+     * {@code records} acquired earlier were handled, taking {@code handlingNanos} in total.
+     */
+    public void release(int records, long handlingNanos) {
+        if (!enabled) {
+            return;
+        }
+        handled.add(records);
+        this.handlingNanos.add(handlingNanos);
+        int current = inFlight.addAndGet(-records);
+        if (paused.get() && current <= limit * properties.getResumeRatio()) {
+            resume();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${logicengine.flow-control.sample-interval-ms:1000}")
+    public void adjust() {
+        if (!enabled) {
+            return;
+        }
+        long count = handled.sumThenReset();
+        long handlingNanos = this.handlingNanos.sumThenReset();
+        int current = inFlight.get();
+        int peak = peakInFlight.getAndSet(current);
+
+        int previous = limit;
+        int next = previous;
+        if (count > 0 && handlingNanos / count > latencyThresholdNanos) {
+            next = Math.max(properties.getMinLimit(), (int) (previous * properties.getBackoffRatio()));
+        } else if (count > 0 && peak * 2 >= previous) {
+            next = Math.min(properties.getMaxLimit(), previous + 1);
+        }
+        if (next != previous) {
+            limit = next;
+            if (next < previous && log.isDebugEnabled()) {
+                log.debug("Flow control limit lowered from {} to {}", previous, next);
+            }
+        }
+
+        // Also settles a pause/resume race between acquire and release, even in an idle interval
+        if (current >= next) {
+            pause();
+        } else if (paused.get() && current <= next * properties.getResumeRatio()) {
+            resume();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public boolean isPaused() {
+        return paused.get();
+    }
+
+    /**
+     * The dispatcher of {@code container} has no slot left; the container stays paused until
+     * {@link #resumeSaturated} even if the limit no longer requires it.
+     */
+    public void pauseSaturated(MessageListenerContainer container) {
+        pauseLock.lock();
+        try {
+            if (saturated.add(container)) {
+                container.pause();
+            }
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    /**
+     * The dispatcher of {@code container} has slots again; the container resumes unless the limit holds it paused.
+     */
+    public void resumeSaturated(MessageListenerContainer container) {
+        pauseLock.lock();
+        try {
+            if (saturated.remove(container) && !paused.get()) {
+                container.resume();
+            }
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    private void pause() {
+        pauseLock.lock();
+        try {
+            if (paused.compareAndSet(false, true)) {
+                pauses.increment();
+                for (MessageListenerContainer container : containers) {
+                    container.pause();
+                }
+            }
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    private void resume() {
+        pauseLock.lock();
+        try {
+            if (paused.compareAndSet(true, false)) {
+                for (MessageListenerContainer container : containers) {
+                    if (!saturated.contains(container)) {
+                        container.resume();
+                    }
+                }
+            }
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.dil.logicengine.flowcontrol;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling drives {@link AdaptiveFlowController#adjust()}, so it is enabled here rather than relied on from
+ * another configuration.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(FlowControlProperties.class)
+public class FlowControlConfiguration {
+}
@@ -0,0 +1,44 @@
+package com.dil.logicengine.flowcontrol;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "logicengine.flow-control")
+public class FlowControlProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Records that may be in flight (dispatched to a listener but not yet handled) before the containers pause.
+     */
+    private int initialLimit = 64;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 1024;
+
+    /**
+     * Average record handling time above which the limit is cut.
+     */
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    /**
+     * Factor applied to the limit when the latency threshold is exceeded (multiplicative decrease).
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Paused containers resume once in-flight records drop to this share of the limit.
+     */
+    private double resumeRatio = 0.8;
+
+    /**
+     * How often the limit is adjusted; the limit grows by at most one per interval (additive increase).
+     */
+    private long sampleIntervalMs = 1000;
+}
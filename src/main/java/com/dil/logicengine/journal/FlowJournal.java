@@ -0,0 +1,35 @@
+package com.dil.logicengine.journal;
+
+import com.dil.logicengine.api.LogicAction;
+
+import java.util.List;
+
+/**
+ * Durable record of flow progress, written by the engine for sequential and async flows so that flows
+ * interrupted by a crash can be resumed or compensated on restart. {@link #NOOP} unless
+ * {@code logicengine.journal.enabled} is set.
+ */
+public interface FlowJournal {
+
+    FlowJournal NOOP = new FlowJournal() {
+    };
+
+    /**
+     * @return id passed to the other callbacks, or 0 if the flow is not journaled
+     */
+    default long flowStarted(Object request, List<? extends LogicAction<?, ?>> actions) {
+        return 0;
+    }
+
+    /**
+     * The action at {@code index} completed. Results are only kept for compensatable actions.
+     */
+    default void actionCompleted(long flowId, int index, LogicAction<?, ?> action, Object result) {
+    }
+
+    /**
+     * The flow completed or was compensated; it needs no recovery anymore.
+     */
+    default void flowFinished(long flowId) {
+    }
+}
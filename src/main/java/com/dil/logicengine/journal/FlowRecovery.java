@@ -0,0 +1,139 @@
+package com.dil.logicengine.journal;
+
+import com.dil.logicengine.LogicEngine;
+import com.dil.logicengine.api.CompensatableAction;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.api.ResponseBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Handles the flows a crash left unfinished in the {@link MappedFlowJournal}, before the listeners start
+ * consuming. Depending on {@code logicengine.journal.recovery} the remaining actions are run
+ * ({@link JournalProperties.RecoveryMode#RESUME RESUME}) or the completed ones are compensated
+ * ({@link JournalProperties.RecoveryMode#COMPENSATE COMPENSATE}). A resumed flow that fails is compensated as a
+ * whole, including the actions completed before the crash. A flow whose recovery throws stays in the journal and
+ * is recovered again on the next start.
+ * <p>
+ * Actions are taken from the context if they are beans, otherwise created through their no-arg constructor.
+ * The response of a resumed flow has no caller any more and is dropped.
+ */
+@Component
+@ConditionalOnProperty(prefix = "logicengine.journal", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class FlowRecovery {
+
+    private static final Logger log = LoggerFactory.getLogger(FlowRecovery.class);
+
+    private final MappedFlowJournal journal;
+    private final LogicEngine logicEngine;
+    private final JournalProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ApplicationContext applicationContext;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void recover() {
+        List<RecoveredFlow> flows = journal.recoveredFlows();
+        for (RecoveredFlow flow : flows) {
+            try {
+                journal.carryOver(flow);
+                if (properties.getRecovery() == JournalProperties.RecoveryMode.RESUME) {
+                    resume(flow);
+                } else {
+                    compensate(flow, restoreRequest(flow), flow.completed().size());
+                }
+                journal.recovered(flow);
+            } catch (Exception e) {
+                // Still open in the current segment, so it is picked up again on the next start
+                log.error("Recovery of flow {} failed: {}", flow.flowId(), e.getMessage(), e);
+            }
+        }
+        if (!flows.isEmpty()) {
+            log.info("Recovered {} unfinished flows ({})", flows.size(), properties.getRecovery());
+        }
+        journal.recoveryCompleted();
+    }
+
+    private void resume(RecoveredFlow flow) throws Exception {
+        Object request = restoreRequest(flow);
+        List<LogicAction<Object, ?>> remaining = new ArrayList<>();
+        for (int i = flow.completed().size(); i < flow.actions().size(); i++) {
+            remaining.add(action(flow.actions().get(i)));
+        }
+
+        // Journaled as the rest of the original flow, so a crash from here on resumes after what this run did
+        FailureCapture failure = new FailureCapture();
+        logicEngine.resumeActions(flow, request, remaining, failure);
+        if (failure.failed) {
+            // The engine compensated the resumed part; the part before the crash is ours
+            compensate(flow, request, flow.completed().size());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void compensate(RecoveredFlow flow, Object request, int completed) throws Exception {
+        for (int i = completed - 1; i >= 0; i--) {
+            RecoveredFlow.CompletedAction entry = flow.completed().get(i);
+            LogicAction<Object, ?> action = action(flow.actions().get(entry.index()));
+            if (!(action instanceof CompensatableAction<?, ?>)) {
+                continue;
+            }
+            Object result = entry.result() == null
+                    ? null
+                    : objectMapper.treeToValue(entry.result(), Class.forName(entry.resultType()));
+            try {
+                ((CompensatableAction<Object, Object>) action).compensate(request, result);
+            } catch (Exception e) {
+                // Keep compensating the rest, as the engine does
+                log.error("Compensation of {} in recovered flow {} failed: {}",
+                        action.getClass().getSimpleName(), flow.flowId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private Object restoreRequest(RecoveredFlow flow) throws Exception {
+        return objectMapper.treeToValue(flow.request(), Class.forName(flow.requestType()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private LogicAction<Object, ?> action(String type) throws ReflectiveOperationException {
+        Class<?> actionClass = Class.forName(type);
+        Object bean = applicationContext.getBeanProvider(actionClass).getIfUnique();
+        if (bean == null) {
+            bean = actionClass.getDeclaredConstructor().newInstance();
+        }
+        return (LogicAction<Object, ?>) bean;
+    }
+
+    private static class FailureCapture implements ResponseBuilder<Object, Void> {
+        boolean failed;
+
+        @Override
+        public void addResult(Class<? extends LogicAction<Object, ?>> actionClass, Object result) {
+        }
+
+        @Override
+        public void handleException(Class<? extends LogicAction<Object, ?>> actionClass, Exception exception) {
+            failed = true;
+            log.error("Resumed flow failed in {}: {}", actionClass.getSimpleName(), exception.getMessage());
+        }
+
+        @Override
+        public Void build(Object request) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.dil.logicengine.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JournalProperties.class)
+public class JournalConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "logicengine.journal", name = "enabled", havingValue = "true")
+    public MappedFlowJournal flowJournal(JournalProperties properties, ObjectMapper objectMapper) {
+        return new MappedFlowJournal(properties, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(FlowJournal.class)
+    public FlowJournal noopFlowJournal() {
+        return FlowJournal.NOOP;
+    }
+}
@@ -0,0 +1,48 @@
+package com.dil.logicengine.journal;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "logicengine.journal")
+public class JournalProperties {
+
+    private boolean enabled = false;
+
+    private String directory = "data/journal";
+
+    /**
+     * Size of each memory-mapped segment file; a new segment is started when the current one is full.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * How often dirty pages are forced to disk. All entries written in between share one sync (group commit).
+     */
+    private Duration syncInterval = Duration.ofMillis(5);
+
+    /**
+     * Whether each entry waits for its sync. Off, entries survive a process crash (they are in the page cache
+     * as soon as they are written) but not a power loss.
+     */
+    private boolean waitForSync = false;
+
+    private RecoveryMode recovery = RecoveryMode.COMPENSATE;
+
+    public enum RecoveryMode {
+        /**
+         * Run the remaining actions of each unfinished flow; compensate everything if one of them fails.
+         */
+        RESUME,
+
+        /**
+         * Compensate the completed actions of each unfinished flow.
+         */
+        COMPENSATE
+    }
+}
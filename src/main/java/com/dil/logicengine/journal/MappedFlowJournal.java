@@ -0,0 +1,460 @@
+package com.dil.logicengine.journal;
+
+import com.dil.logicengine.api.CompensatableAction;
+import com.dil.logicengine.api.LogicAction;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * {@link FlowJournal} on append-only, memory-mapped segment files. An entry is a copy into the mapping; nothing
+ * touches the disk on the flow's thread. A background thread forces the current segment every
+ * {@link JournalProperties#getSyncInterval() sync interval}, so all entries written in between share one sync
+ * (group commit); with {@link JournalProperties#isWaitForSync() wait-for-sync} writers block until theirs.
+ * <p>
+ * Entry layout: {@code int bodyLength, int crc32c(body), body}, where body is
+ * {@code byte type, long flowId, int actionIndex, payload}. A zero length or a bad checksum ends a segment, so
+ * an entry torn by a crash is ignored. Segments are deleted oldest first: a segment goes once no flow started in
+ * it or in any older segment is still open, because a long flow's later entries may sit in any newer segment.
+ * <p>
+ * On startup the existing segments are read and the unfinished flows are kept for {@link FlowRecovery};
+ * writing continues in a new segment. Recovery {@link #carryOver carries} each flow over into it before handling
+ * it, so the old segments can be deleted by {@link #recoveryCompleted()} while a flow whose recovery failed stays
+ * open and is recovered again on the next start.
+ */
+public class MappedFlowJournal implements FlowJournal, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedFlowJournal.class);
+
+    static final byte FLOW_STARTED = 1;
+    static final byte ACTION_COMPLETED = 2;
+    static final byte FLOW_FINISHED = 3;
+
+    private static final int HEADER = 8;
+    private static final int BODY_HEADER = 1 + 8 + 4;
+    private static final byte[] NO_PAYLOAD = new byte[0];
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long syncIntervalNanos;
+    private final boolean waitForSync;
+    private final ObjectMapper objectMapper;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    // Guarded by appendLock
+    private final Map<Long, Segment> openFlows = new HashMap<>();
+    // Guarded by appendLock; live segments oldest first, ending with current
+    private final ArrayDeque<Segment> liveSegments = new ArrayDeque<>();
+    private final AtomicLong flowIds = new AtomicLong(System.currentTimeMillis() << 20);
+    private final List<Path> recoveredSegments;
+    private final List<RecoveredFlow> recoveredFlows;
+    private final Thread syncThread;
+
+    // Guarded by appendLock
+    private Segment current;
+    private long written;
+
+    private volatile long durable;
+    private volatile boolean running = true;
+
+    public MappedFlowJournal(JournalProperties properties, ObjectMapper objectMapper) {
+        this.directory = Path.of(properties.getDirectory());
+        this.segmentSize = Math.toIntExact(properties.getSegmentSize().toBytes());
+        this.syncIntervalNanos = properties.getSyncInterval().toNanos();
+        this.waitForSync = properties.isWaitForSync();
+        this.objectMapper = objectMapper;
+
+        try {
+            Files.createDirectories(directory);
+            recoveredSegments = segments();
+            recoveredFlows = readSegments(recoveredSegments);
+            long lastSequence = recoveredSegments.isEmpty() ? 0 : sequenceOf(recoveredSegments.getLast());
+            current = Segment.create(directory, lastSequence + 1, segmentSize);
+            liveSegments.add(current);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open flow journal in " + directory, e);
+        }
+        if (!recoveredFlows.isEmpty()) {
+            log.warn("Flow journal holds {} unfinished flows", recoveredFlows.size());
+        }
+
+        syncThread = Thread.ofPlatform().daemon().name("flow-journal-sync").start(this::syncLoop);
+    }
+
+    @Override
+    public long flowStarted(Object request, List<? extends LogicAction<?, ?>> actions) {
+        byte[] payload;
+        try {
+            List<String> actionTypes = new ArrayList<>(actions.size());
+            for (LogicAction<?, ?> action : actions) {
+                actionTypes.add(action.getClass().getName());
+            }
+            payload = objectMapper.writeValueAsBytes(new StartedEntry(request.getClass().getName(), request, actionTypes));
+        } catch (IOException | RuntimeException e) {
+            // Not recoverable, but the flow itself must not fail because of the journal
+            log.warn("Flow of {} is not journaled: {}", request.getClass().getSimpleName(), e.getMessage());
+            return 0;
+        }
+
+        long flowId = flowIds.incrementAndGet();
+        awaitDurable(append(FLOW_STARTED, flowId, -1, payload, true));
+        return flowId;
+    }
+
+    @Override
+    public void actionCompleted(long flowId, int index, LogicAction<?, ?> action, Object result) {
+        if (flowId == 0) {
+            return;
+        }
+        byte[] payload = NO_PAYLOAD;
+        // Only compensation needs the result; other completions just move the resume point
+        if (action instanceof CompensatableAction<?, ?> && result != null) {
+            try {
+                payload = objectMapper.writeValueAsBytes(new CompletedEntry(result.getClass().getName(), result));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Result of {} is not journaled, it will be compensated with null: {}",
+                        action.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        awaitDurable(append(ACTION_COMPLETED, flowId, index, payload, false));
+    }
+
+    @Override
+    public void flowFinished(long flowId) {
+        if (flowId == 0) {
+            return;
+        }
+        // Not awaited: losing it only means the flow is needlessly looked at again on recovery
+        append(FLOW_FINISHED, flowId, -1, NO_PAYLOAD, false);
+    }
+
+    /**
+     * Flows found unfinished when the journal was opened, in start order.
+     */
+    public List<RecoveredFlow> recoveredFlows() {
+        return Collections.unmodifiableList(recoveredFlows);
+    }
+
+    /**
+     * Marks a recovered flow as handled, so a crash during recovery does not handle it again.
+     */
+    public void recovered(RecoveredFlow flow) {
+        awaitDurable(append(FLOW_FINISHED, flow.flowId(), -1, NO_PAYLOAD, false));
+    }
+
+    /**
+     * Copies a recovered flow, with the actions it completed, into the current segment under its id. Its entries
+     * in the recovered segments are then no longer needed, and the flow stays open until it is
+     * {@link #recovered}.
+     */
+    public void carryOver(RecoveredFlow flow) {
+        long position;
+        try {
+            position = append(FLOW_STARTED, flow.flowId(), -1, objectMapper.writeValueAsBytes(
+                    new StartedEntry(flow.requestType(), flow.request(), flow.actions())), true);
+            for (RecoveredFlow.CompletedAction completed : flow.completed()) {
+                byte[] payload = completed.resultType() == null
+                        ? NO_PAYLOAD
+                        : objectMapper.writeValueAsBytes(new CompletedEntry(completed.resultType(), completed.result()));
+                position = append(ACTION_COMPLETED, flow.flowId(), completed.index(), payload, false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot carry over flow " + flow.flowId(), e);
+        }
+        awaitDurable(position);
+    }
+
+    /**
+     * Deletes the segments the recovered flows were read from. Flows still needing recovery must have been
+     * {@link #carryOver carried over} by then.
+     */
+    public void recoveryCompleted() {
+        recoveredFlows.clear();
+        for (Path segment : recoveredSegments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                log.warn("Cannot delete journal segment {}: {}", segment, e.getMessage());
+            }
+        }
+        recoveredSegments.clear();
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        LockSupport.unpark(syncThread);
+        try {
+            syncThread.join(TimeUnit.NANOSECONDS.toMillis(syncIntervalNanos) + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        appendLock.lock();
+        try {
+            current.buffer.force();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Copies one entry into the current segment and returns the journal position after it.
+     */
+    private long append(byte type, long flowId, int index, byte[] payload, boolean opensFlow) {
+        int bodyLength = BODY_HEADER + payload.length;
+        int entryLength = HEADER + bodyLength;
+        // Room for the entry plus the zero length that ends the segment
+        if (entryLength + 4 > segmentSize) {
+            throw new IllegalArgumentException("Journal entry of " + entryLength + " bytes exceeds the segment size");
+        }
+
+        appendLock.lock();
+        try {
+            if (current.position + entryLength + 4 > segmentSize) {
+                roll();
+            }
+            MappedByteBuffer buffer = current.buffer;
+            int position = current.position;
+            buffer.put(position + HEADER, type);
+            buffer.putLong(position + HEADER + 1, flowId);
+            buffer.putInt(position + HEADER + 9, index);
+            buffer.put(position + HEADER + BODY_HEADER, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(position + HEADER, bodyLength));
+            buffer.putInt(position + 4, (int) crc.getValue());
+            buffer.putInt(position, bodyLength);
+
+            current.position += entryLength;
+            written += entryLength;
+
+            if (opensFlow) {
+                current.openFlows++;
+                openFlows.put(flowId, current);
+            } else if (type == FLOW_FINISHED) {
+                Segment started = openFlows.remove(flowId);
+                if (started != null && --started.openFlows == 0) {
+                    deleteFinishedSegments();
+                }
+            }
+            return written;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Called with the append lock held.
+     */
+    private void roll() {
+        Segment full = current;
+        full.buffer.force();
+        durable = written;
+        signalSynced();
+        try {
+            current = Segment.create(directory, full.sequence + 1, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create flow journal segment", e);
+        }
+        liveSegments.add(current);
+        deleteFinishedSegments();
+    }
+
+    /**
+     * Deletes the oldest segments up to the first one that still holds an open flow's start. Called with the
+     * append lock held.
+     */
+    private void deleteFinishedSegments() {
+        while (liveSegments.peekFirst() != current && liveSegments.peekFirst().openFlows == 0) {
+            liveSegments.pollFirst().delete();
+        }
+    }
+
+    private void syncLoop() {
+        while (running) {
+            LockSupport.parkNanos(syncIntervalNanos);
+            long target;
+            Segment segment;
+            appendLock.lock();
+            try {
+                target = written;
+                segment = current;
+            } finally {
+                appendLock.unlock();
+            }
+            if (target > durable) {
+                // Outside the lock: writers keep appending while the pages go to disk
+                segment.buffer.force();
+                if (target > durable) {
+                    durable = target;
+                }
+                signalSynced();
+            }
+        }
+    }
+
+    private void awaitDurable(long position) {
+        if (!waitForSync || durable >= position) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            while (durable < position && running) {
+                synced.awaitNanos(syncIntervalNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void signalSynced() {
+        if (!waitForSync) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            synced.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        }
+    }
+
+    private List<RecoveredFlow> readSegments(List<Path> segments) throws IOException {
+        Map<Long, RecoveredFlow> unfinished = new LinkedHashMap<>();
+        for (Path segment : segments) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                readSegment(buffer, unfinished);
+            }
+        }
+        return new ArrayList<>(unfinished.values());
+    }
+
+    private void readSegment(MappedByteBuffer buffer, Map<Long, RecoveredFlow> unfinished) throws IOException {
+        int position = 0;
+        while (position + HEADER + BODY_HEADER <= buffer.limit()) {
+            int bodyLength = buffer.getInt(position);
+            if (bodyLength < BODY_HEADER || position + HEADER + bodyLength > buffer.limit()) {
+                return;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(position + HEADER, bodyLength));
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                return;
+            }
+
+            byte type = buffer.get(position + HEADER);
+            long flowId = buffer.getLong(position + HEADER + 1);
+            int index = buffer.getInt(position + HEADER + 9);
+            byte[] payload = new byte[bodyLength - BODY_HEADER];
+            buffer.get(position + HEADER + BODY_HEADER, payload);
+
+            switch (type) {
+                case FLOW_STARTED -> {
+                    JsonNode entry = objectMapper.readTree(payload);
+                    List<String> actions = new ArrayList<>();
+                    entry.get("actions").forEach(action -> actions.add(action.asText()));
+                    unfinished.put(flowId, new RecoveredFlow(flowId, entry.get("requestType").asText(),
+                            entry.get("request"), actions));
+                }
+                case ACTION_COMPLETED -> {
+                    RecoveredFlow flow = unfinished.get(flowId);
+                    if (flow != null) {
+                        JsonNode entry = payload.length == 0 ? null : objectMapper.readTree(payload);
+                        flow.completed().add(new RecoveredFlow.CompletedAction(index,
+                                entry == null ? null : entry.get("resultType").asText(),
+                                entry == null ? null : entry.get("result")));
+                    }
+                }
+                case FLOW_FINISHED -> unfinished.remove(flowId);
+                default -> {
+                    return;
+                }
+            }
+            position += HEADER + bodyLength;
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    record StartedEntry(String requestType, Object request, List<String> actions) {
+    }
+
+    record CompletedEntry(String resultType, Object result) {
+    }
+
+    private static final class Segment {
+        final long sequence;
+        final Path path;
+        final MappedByteBuffer buffer;
+        // Guarded by the journal's append lock
+        int position;
+        int openFlows;
+
+        private Segment(long sequence, Path path, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path directory, long sequence, int size) throws IOException {
+            Path path = directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // The mapping stays valid after the channel is closed
+                return new Segment(sequence, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Cannot delete journal segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.dil.logicengine.journal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A flow found unfinished in the journal on startup. Sequential flows complete their actions in order, so
+ * {@link #completed} holds exactly the first {@code completed.size()} actions.
+ */
+public record RecoveredFlow(long flowId,
+                            String requestType,
+                            JsonNode request,
+                            List<String> actions,
+                            List<CompletedAction> completed) {
+
+    RecoveredFlow(long flowId, String requestType, JsonNode request, List<String> actions) {
+        this(flowId, requestType, request, actions, new ArrayList<>());
+    }
+
+    /**
+     * @param result the result of a compensatable action, otherwise null
+     */
+    public record CompletedAction(int index, String resultType, JsonNode result) {
+    }
+}
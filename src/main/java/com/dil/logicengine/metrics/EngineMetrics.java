@@ -0,0 +1,90 @@
+package com.dil.logicengine.metrics;
+
+import com.dil.logicengine.api.FlowListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Flow-level meters: {@code logicengine.flows.in_flight}, {@code logicengine.flow.duration{flow,outcome}},
+ * {@code logicengine.compensation.runs} and {@code logicengine.compensation.failures{action}}.
+ * Meters keyed by flow or action are created on first use and cached, so later flows do no registry lookups.
+ */
+@Component
+public class EngineMetrics implements FlowListener {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter compensationRuns;
+    private final Map<String, FlowTimers> flowTimers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Counter> compensationFailures = new ConcurrentHashMap<>();
+
+    public EngineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("logicengine.flows.in_flight", inFlight, AtomicInteger::get)
+                .description("Flows currently executing")
+                .register(meterRegistry);
+        this.compensationRuns = Counter.builder("logicengine.compensation.runs")
+                .description("Flows that ran compensation")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void flowStarted(String flow) {
+        inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void flowFinished(String flow, long durationNanos, boolean failed) {
+        inFlight.decrementAndGet();
+        FlowTimers timers = flowTimers.get(flow);
+        if (timers == null) {
+            timers = flowTimers.computeIfAbsent(flow, this::register);
+        }
+        (failed ? timers.failure : timers.success).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void compensationStarted(int actions) {
+        compensationRuns.increment();
+    }
+
+    @Override
+    public void compensationFailed(Class<?> actionClass, Exception cause) {
+        Counter counter = compensationFailures.get(actionClass);
+        if (counter == null) {
+            counter = compensationFailures.computeIfAbsent(actionClass, type ->
+                    Counter.builder("logicengine.compensation.failures")
+                            .description("Compensations that threw")
+                            .tag("action", type.getSimpleName())
+                            .register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    private FlowTimers register(String flow) {
+        return new FlowTimers(flowTimer(flow, "success"), flowTimer(flow, "error"));
+    }
+
+    private Timer flowTimer(String flow, String outcome) {
+        return Timer.builder("logicengine.flow.duration")
+                .description("End-to-end flow execution time")
+                .tag("flow", flow)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(60))
+                .register(meterRegistry);
+    }
+
+    private record FlowTimers(Timer success, Timer failure) {
+    }
+}
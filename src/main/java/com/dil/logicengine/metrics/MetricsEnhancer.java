@@ -0,0 +1,102 @@
+package com.dil.logicengine.metrics;
+
+import com.dil.logicengine.api.ActionException;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.enhancer.ActionEnhancer;
+import com.dil.logicengine.enhancer.ActionInterceptor;
+import com.dil.logicengine.enhancer.ActionMetadata;
+import com.dil.logicengine.enhancer.ActionPipeline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every action execution as {@code logicengine.action.duration{action,outcome}} with a percentile
+ * histogram, and counts failures as {@code logicengine.action.errors{action,retryable}}. All meters of an action
+ * class are registered when its pipeline is compiled; executions only record into the cached meters.
+ * <p>
+ * Runs outermost, so durations are what the flow observed, cache hits included.
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricsEnhancer implements ActionEnhancer {
+
+    public static final int ORDER = 25;
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public ActionInterceptor compile(ActionMetadata metadata) {
+        String action = metadata.getName();
+        Timer success = timer(action, "success");
+        Timer error = timer(action, "error");
+        Counter retryableErrors = errors(action, true);
+        Counter permanentErrors = errors(action, false);
+
+        return new ActionInterceptor() {
+            @Override
+            public Object intercept(LogicAction<Object, Object> target, Object input, ActionPipeline next) {
+                long start = System.nanoTime();
+                try {
+                    Object result = next.execute(target, input);
+                    success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return result;
+                } catch (RuntimeException e) {
+                    error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    (isRetryable(e) ? retryableErrors : permanentErrors).increment();
+                    throw e;
+                }
+            }
+
+            @Override
+            public CompletionStage<Object> interceptAsync(LogicAction<Object, Object> target, Object input, ActionPipeline next) {
+                long start = System.nanoTime();
+                return next.executeAsync(target, input).whenComplete((result, failure) -> {
+                    long elapsed = System.nanoTime() - start;
+                    if (failure == null) {
+                        success.record(elapsed, TimeUnit.NANOSECONDS);
+                    } else {
+                        error.record(elapsed, TimeUnit.NANOSECONDS);
+                        (isRetryable(failure) ? retryableErrors : permanentErrors).increment();
+                    }
+                });
+            }
+        };
+    }
+
+    private Timer timer(String action, String outcome) {
+        return Timer.builder("logicengine.action.duration")
+                .description("Action execution time")
+                .tag("action", action)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+
+    private Counter errors(String action, boolean retryable) {
+        return Counter.builder("logicengine.action.errors")
+                .description("Failed action executions")
+                .tag("action", action)
+                .tag("retryable", String.valueOf(retryable))
+                .register(meterRegistry);
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof ActionException actionException && actionException.isRetryable();
+    }
+}
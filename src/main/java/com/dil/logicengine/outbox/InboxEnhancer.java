@@ -0,0 +1,84 @@
+package com.dil.logicengine.outbox;
+
+import com.dil.logicengine.api.BulkRequest;
+import com.dil.logicengine.api.InboxAction;
+import com.dil.logicengine.enhancer.ActionEnhancer;
+import com.dil.logicengine.enhancer.ActionInterceptor;
+import com.dil.logicengine.enhancer.ActionLogger;
+import com.dil.logicengine.enhancer.ActionMetadata;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+/**
+ * Deduplicates {@link InboxAction}s by message id. The inbox row is inserted in the same transaction as the
+ * action, so a failed action leaves no trace and the message can be processed again. Duplicates are skipped
+ * and yield a {@code null} result. Bulk executions are not deduplicated.
+ * <p>
+ * Without a surrounding transaction the insert is the dedup check and a duplicate rolls back the enhancer's own
+ * transaction. Inside a caller's transaction a failed insert would doom it, so the row is looked up first and a
+ * duplicate is skipped without touching the transaction; only a concurrent delivery racing the insert still
+ * fails the caller.
+ */
+@Component
+@RequiredArgsConstructor
+public class InboxEnhancer implements ActionEnhancer {
+
+    // Outside the outbox enhancer so both share one transaction
+    public static final int ORDER = 300;
+
+    private final InboxMessageRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ActionLogger log = new ActionLogger(InboxEnhancer.class);
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public boolean supports(ActionMetadata metadata) {
+        return InboxAction.class.isAssignableFrom(metadata.getActionClass());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ActionInterceptor compile(ActionMetadata metadata) {
+        String actionType = metadata.getActionClass().getName();
+        return (action, input, next) -> {
+            if (input instanceof BulkRequest<?>) {
+                return next.execute(action, input);
+            }
+            String messageId = ((InboxAction<Object, Object>) action).messageId(input);
+            if (messageId == null) {
+                return next.execute(action, input);
+            }
+
+            boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+            return transactionTemplate.execute(status -> {
+                if (joined && repository.existsById(new InboxMessage.Key(messageId, actionType))) {
+                    log.info("Skipping duplicate message {} for {}", messageId, metadata.getName());
+                    return null;
+                }
+                try {
+                    // A plain insert: on our own transaction the primary key is the dedup check
+                    repository.saveAndFlush(new InboxMessage(messageId, actionType, Instant.now()));
+                } catch (DataIntegrityViolationException e) {
+                    if (joined) {
+                        // The caller's transaction is rollback-only now; fail here rather than at its commit
+                        throw e;
+                    }
+                    // Processed before, or a concurrent delivery of the same message won the insert
+                    status.setRollbackOnly();
+                    log.info("Skipping duplicate message {} for {}", messageId, metadata.getName());
+                    return null;
+                }
+                return next.execute(action, input);
+            });
+        };
+    }
+}
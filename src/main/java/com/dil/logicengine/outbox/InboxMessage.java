@@ -0,0 +1,83 @@
+package com.dil.logicengine.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One row per (message, action) that has been processed; the primary key doubles as the dedup index.
+ * <p>
+ * New rows report {@link #isNew()}, so saving one is a plain insert rather than a merge that selects the
+ * assigned key first; a duplicate surfaces as a constraint violation.
+ */
+@Entity
+@Table(name = "inbox_message")
+@IdClass(InboxMessage.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class InboxMessage implements Persistable<InboxMessage.Key> {
+
+    @Id
+    @Column(name = "message_id")
+    private String messageId;
+
+    @Id
+    @Column(name = "action_type")
+    private String actionType;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    public InboxMessage(String messageId, String actionType, Instant receivedAt) {
+        this.messageId = messageId;
+        this.actionType = actionType;
+        this.receivedAt = receivedAt;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(messageId, actionType);
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String messageId;
+        private String actionType;
+    }
+}
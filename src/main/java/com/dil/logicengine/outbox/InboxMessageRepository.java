@@ -0,0 +1,6 @@
+package com.dil.logicengine.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface InboxMessageRepository extends JpaRepository<InboxMessage, InboxMessage.Key> {
+}
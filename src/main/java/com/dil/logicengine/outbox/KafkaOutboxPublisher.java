@@ -0,0 +1,36 @@
+package com.dil.logicengine.outbox;
+
+import com.dil.logicengine.api.MessageContext;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+public class KafkaOutboxPublisher implements OutboxPublisher {
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    public KafkaOutboxPublisher(ProducerFactory<?, ?> producerFactory) {
+        // Payloads are already serialized when staged, so send them as raw bytes with the application's producer settings.
+        // Kept private rather than a bean so Boot's own KafkaTemplate still gets auto-configured.
+        this.kafkaTemplate = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                producerFactory.getConfigurationProperties(),
+                new StringSerializer(),
+                new ByteArraySerializer()));
+    }
+
+    @Override
+    public CompletableFuture<?> publish(OutboxMessage message) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+                message.getTopic(), message.getMessageKey(), message.getPayload());
+        record.headers().add(MessageContext.MESSAGE_ID_HEADER, message.getMessageId().getBytes(StandardCharsets.UTF_8));
+        return kafkaTemplate.send(record);
+    }
+}
@@ -0,0 +1,63 @@
+package com.dil.logicengine.outbox;
+
+import com.dil.logicengine.api.OutgoingMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stages outgoing messages. Staging must happen inside the transaction of the business write it belongs to;
+ * the {@link OutboxRelay} publishes the message once that transaction has committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+
+    private final OutboxMessageRepository repository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void stage(OutgoingMessage message) {
+        stageAll(List.of(message));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void stageAll(List<OutgoingMessage> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<OutboxMessage> rows = new ArrayList<>(messages.size());
+        for (OutgoingMessage message : messages) {
+            OutboxMessage row = new OutboxMessage();
+            row.setMessageId(UUID.randomUUID().toString());
+            row.setTopic(message.topic());
+            row.setMessageKey(message.key());
+            row.setPayload(serialize(message.payload()));
+            row.setStatus(OutboxStatus.PENDING);
+            row.setCreatedAt(now);
+            row.setNextAttemptAt(now);
+            rows.add(row);
+        }
+        repository.saveAll(rows);
+    }
+
+    private byte[] serialize(Object payload) {
+        if (payload instanceof byte[] bytes) {
+            return bytes;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
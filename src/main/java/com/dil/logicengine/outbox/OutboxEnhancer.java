@@ -0,0 +1,58 @@
+package com.dil.logicengine.outbox;
+
+import com.dil.logicengine.api.BulkRequest;
+import com.dil.logicengine.api.OutboxAction;
+import com.dil.logicengine.api.OutgoingMessage;
+import com.dil.logicengine.enhancer.ActionEnhancer;
+import com.dil.logicengine.enhancer.ActionInterceptor;
+import com.dil.logicengine.enhancer.ActionMetadata;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs {@link OutboxAction}s in a transaction and stages their outgoing messages in that same transaction,
+ * so the messages exist if and only if the action's writes commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxEnhancer implements ActionEnhancer {
+
+    public static final int ORDER = 310;
+
+    private final Outbox outbox;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public boolean supports(ActionMetadata metadata) {
+        return OutboxAction.class.isAssignableFrom(metadata.getActionClass());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ActionInterceptor compile(ActionMetadata metadata) {
+        return (action, input, next) -> transactionTemplate.execute(status -> {
+            Object result = next.execute(action, input);
+            OutboxAction<Object, Object> outboxAction = (OutboxAction<Object, Object>) action;
+            if (input instanceof BulkRequest<?> bulk) {
+                List<?> results = (List<?>) result;
+                List<OutgoingMessage> messages = new ArrayList<>(results.size());
+                for (int i = 0; i < results.size(); i++) {
+                    messages.addAll(outboxAction.outgoing(bulk.inputs().get(i), results.get(i)));
+                }
+                outbox.stageAll(messages);
+            } else {
+                outbox.stageAll(outboxAction.outgoing(input, result));
+            }
+            return result;
+        });
+    }
+}
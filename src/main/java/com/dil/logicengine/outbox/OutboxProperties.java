@@ -0,0 +1,41 @@
+package com.dil.logicengine.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "logicengine.outbox")
+public class OutboxProperties {
+
+    /**
+     * Whether the scheduled relay runs in this instance.
+     */
+    private boolean relayEnabled = true;
+
+    /**
+     * Maximum number of messages published per relay run.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Attempts before a message is marked FAILED and no longer retried.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Wait before retrying a message whose send failed; doubles with every further failure.
+     */
+    private long retryBackoffMs = 1_000;
+
+    /**
+     * Upper bound of the retry wait.
+     */
+    private long maxRetryBackoffMs = 60_000;
+
+    /**
+     * How long the relay waits for broker acknowledgements of a batch.
+     */
+    private long sendTimeoutMs = 10_000;
+}
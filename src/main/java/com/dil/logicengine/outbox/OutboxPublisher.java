@@ -0,0 +1,11 @@
+package com.dil.logicengine.outbox;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transport used by the {@link OutboxRelay}. {@code publish} must not block; the relay sends a whole batch
+ * before waiting on any of the returned futures.
+ */
+public interface OutboxPublisher {
+    CompletableFuture<?> publish(OutboxMessage message);
+}
@@ -0,0 +1,110 @@
+package com.dil.logicengine.outbox;
+
+import com.dil.logicengine.enhancer.ActionLogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes pending outbox messages in batches. All sends of a batch are issued back to back so the
+ * producer can pipeline them, then the relay waits for the acknowledgements and records each outcome.
+ * Delivery is at-least-once; consumers deduplicate through {@code InboxAction}. A failed message waits an
+ * exponentially growing backoff before it is picked up again, so {@code max-attempts} spans an outage rather
+ * than a few polls.
+ * <p>
+ * Assumes a single relaying instance; run it on one node only ({@code logicengine.outbox.relay-enabled}).
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final OutboxMessageRepository repository;
+    private final OutboxPublisher publisher;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ActionLogger log = new ActionLogger(OutboxRelay.class);
+
+    @Scheduled(fixedDelayString = "${logicengine.outbox.poll-interval-ms:500}")
+    public void relay() {
+        if (!properties.isRelayEnabled()) {
+            return;
+        }
+        try {
+            // Keep going while full batches are going out
+            int sent;
+            do {
+                sent = relayBatch();
+            } while (sent == properties.getBatchSize());
+        } catch (Exception e) {
+            log.error("Outbox relay failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Publishes one batch and returns how many of its messages were sent.
+     */
+    public int relayBatch() {
+        List<OutboxMessage> batch = repository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                OutboxStatus.PENDING, Instant.now(), PageRequest.of(0, properties.getBatchSize()));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        CompletableFuture<?>[] sends = new CompletableFuture[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                sends[i] = publisher.publish(batch.get(i));
+            } catch (Exception e) {
+                sends[i] = CompletableFuture.failedFuture(e);
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getSendTimeoutMs());
+        Instant now = Instant.now();
+        int sent = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxMessage message = batch.get(i);
+            message.setAttempts(message.getAttempts() + 1);
+            try {
+                sends[i].get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                message.setStatus(OutboxStatus.SENT);
+                message.setSentAt(now);
+                message.setLastError(null);
+                sent++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                recordFailure(message, e, now);
+            } catch (ExecutionException | TimeoutException e) {
+                recordFailure(message, e, now);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> repository.saveAll(batch));
+        return sent;
+    }
+
+    private void recordFailure(OutboxMessage message, Exception e, Instant now) {
+        Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        String error = String.valueOf(cause.getMessage());
+        message.setLastError(error.length() > 1024 ? error.substring(0, 1024) : error);
+        if (message.getAttempts() >= properties.getMaxAttempts()) {
+            message.setStatus(OutboxStatus.FAILED);
+            log.error("Outbox message {} to topic={} failed permanently: {}",
+                    message.getMessageId(), message.getTopic(), cause.getMessage());
+            return;
+        }
+        // attempts is at least 1 here; the shift is capped so the doubling cannot overflow
+        long backoffMs = Math.min(properties.getMaxRetryBackoffMs(),
+                properties.getRetryBackoffMs() << Math.min(message.getAttempts() - 1, 20));
+        message.setNextAttemptAt(now.plusMillis(backoffMs));
+    }
+}
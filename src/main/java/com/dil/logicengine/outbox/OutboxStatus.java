@@ -0,0 +1,7 @@
+package com.dil.logicengine.outbox;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,35 @@
+package com.dil.logicengine.profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one action execution, so actions line up with GC, lock and I/O events in a recording.
+ * Fields are only filled in when a recording is going to commit the event.
+ */
+@Name("com.dil.logicengine.ActionExecution")
+@Label("Action Execution")
+@Category("Logic Engine")
+@Description("Execution of one logic engine action")
+@StackTrace(false)
+class ActionExecutionEvent extends Event {
+
+    @Label("Flow")
+    String flow;
+
+    @Label("Action")
+    String action;
+
+    @Label("Allocated")
+    @DataAmount
+    @Description("Bytes allocated by the executing thread, -1 if not measured")
+    long allocatedBytes;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,17 @@
+package com.dil.logicengine.profiler;
+
+/**
+ * One action execution.
+ *
+ * @param flow           flow the action ran in, or null outside a flow
+ * @param offsetNanos    start of the action relative to the start of its flow
+ * @param allocatedBytes bytes allocated by the executing thread, or -1 when not measured (async actions,
+ *                       allocation measurement disabled or unsupported)
+ */
+public record ActionSample(String flow,
+                           String action,
+                           long offsetNanos,
+                           long durationNanos,
+                           long allocatedBytes,
+                           boolean failed) {
+}
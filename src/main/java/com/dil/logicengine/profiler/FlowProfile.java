@@ -0,0 +1,78 @@
+package com.dil.logicengine.profiler;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Action samples of one running flow, carried in the flow's {@link Context}. DAG branches and fan-out workers
+ * add samples concurrently onto a lock-free stack; a flow of n actions costs n small nodes and nothing up front.
+ */
+final class FlowProfile {
+
+    private static final ContextKey<FlowProfile> KEY = ContextKey.named("logicengine-flow-profile");
+
+    final String flow;
+    final long startedNanos;
+    final long startedMillis;
+    private final int maxActions;
+    private final AtomicReference<Node> head = new AtomicReference<>();
+    private final AtomicInteger dropped = new AtomicInteger();
+
+    FlowProfile(String flow, int maxActions) {
+        this.flow = flow;
+        this.maxActions = maxActions;
+        this.startedNanos = System.nanoTime();
+        this.startedMillis = System.currentTimeMillis();
+    }
+
+    static FlowProfile current() {
+        return Context.current().get(KEY);
+    }
+
+    static FlowProfile from(Context context) {
+        return context.get(KEY);
+    }
+
+    Context storeIn(Context context) {
+        return context.with(KEY, this);
+    }
+
+    void add(ActionSample sample) {
+        Node current;
+        Node added;
+        do {
+            current = head.get();
+            int size = current == null ? 0 : current.size;
+            if (size >= maxActions) {
+                dropped.incrementAndGet();
+                return;
+            }
+            added = new Node(sample, current, size + 1);
+        } while (!head.compareAndSet(current, added));
+    }
+
+    /**
+     * Samples in start order.
+     */
+    List<ActionSample> samples() {
+        List<ActionSample> samples = new ArrayList<>();
+        for (Node node = head.get(); node != null; node = node.next) {
+            samples.add(node.sample);
+        }
+        samples.sort(Comparator.comparingLong(ActionSample::offsetNanos));
+        return samples;
+    }
+
+    int dropped() {
+        return dropped.get();
+    }
+
+    private record Node(ActionSample sample, Node next, int size) {
+    }
+}
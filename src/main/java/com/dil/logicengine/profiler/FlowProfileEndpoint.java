@@ -0,0 +1,44 @@
+package com.dil.logicengine.profiler;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/flowprofile}: the slowest recent flows ({@code ?limit=}, default 10) with their per-action
+ * timings, and a per-action breakdown over recent executions. {@code /actuator/flowprofile/{flow}} lists the
+ * recent slow runs of one flow.
+ */
+@Component
+@Endpoint(id = "flowprofile")
+@RequiredArgsConstructor
+public class FlowProfileEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final FlowProfiler profiler;
+    private final ProfilerProperties properties;
+
+    @ReadOperation
+    public FlowProfileReport flowProfile(@Nullable Integer limit) {
+        return new FlowProfileReport(properties.getSlowFlowThreshold().toMillis(),
+                profiler.getSlowestFlows(limit == null ? DEFAULT_LIMIT : Math.max(0, limit)),
+                profiler.getActionBreakdown());
+    }
+
+    @ReadOperation
+    public List<SlowFlow> slowFlows(@Selector String flow) {
+        return profiler.getSlowFlows(flow);
+    }
+
+    public record FlowProfileReport(long slowFlowThresholdMs,
+                                    List<SlowFlow> slowestFlows,
+                                    Map<String, FlowProfiler.ActionBreakdown> actions) {
+    }
+}
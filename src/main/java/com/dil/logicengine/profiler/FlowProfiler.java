@@ -0,0 +1,146 @@
+package com.dil.logicengine.profiler;
+
+import com.dil.logicengine.api.FlowListener;
+import io.opentelemetry.context.Context;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-process flow profiler that needs no tracing backend. Every action execution (see {@link ProfilingEnhancer})
+ * goes into a ring of recent {@link ActionSample}s, from which per-action breakdowns are computed on demand.
+ * Each flow collects its own samples while it runs; flows at or over
+ * {@code logicengine.profiler.slow-flow-threshold} are then kept whole in a ring of recent {@link SlowFlow}s,
+ * the rest are dropped. Both rings are fixed-size and written without locks.
+ * <p>
+ * Read through {@code /actuator/flowprofile}.
+ */
+@Component
+public class FlowProfiler implements FlowListener {
+
+    private final ProfilerProperties properties;
+    private final long slowFlowNanos;
+    private final ProfileRing<ActionSample> actionSamples;
+    private final ProfileRing<SlowFlow> slowFlows;
+
+    public FlowProfiler(ProfilerProperties properties) {
+        this.properties = properties;
+        this.slowFlowNanos = properties.getSlowFlowThreshold().toNanos();
+        this.actionSamples = new ProfileRing<>(properties.getActionSamples());
+        this.slowFlows = new ProfileRing<>(properties.getSlowFlows());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public Context attach(String flow, Context context) {
+        if (!properties.isEnabled()) {
+            return context;
+        }
+        return new FlowProfile(flow, properties.getMaxActionsPerFlow()).storeIn(context);
+    }
+
+    @Override
+    public void flowFinished(String flow, long durationNanos, boolean failed, Context context) {
+        FlowProfile profile = FlowProfile.from(context);
+        if (profile == null || durationNanos < slowFlowNanos) {
+            return;
+        }
+        slowFlows.add(new SlowFlow(flow, Instant.ofEpochMilli(profile.startedMillis), durationNanos, failed,
+                profile.samples(), profile.dropped()));
+    }
+
+    void record(ActionSample sample, FlowProfile profile) {
+        actionSamples.add(sample);
+        if (profile != null) {
+            profile.add(sample);
+        }
+    }
+
+    /**
+     * The {@code limit} slowest of the recently kept slow flows, slowest first.
+     */
+    public List<SlowFlow> getSlowestFlows(int limit) {
+        List<SlowFlow> flows = slowFlows.snapshot();
+        flows.sort(Comparator.comparingLong(SlowFlow::durationNanos).reversed());
+        return flows.subList(0, Math.min(limit, flows.size()));
+    }
+
+    /**
+     * Recently kept slow flows named {@code flow}, slowest first.
+     */
+    public List<SlowFlow> getSlowFlows(String flow) {
+        List<SlowFlow> flows = new ArrayList<>();
+        for (SlowFlow slowFlow : slowFlows.snapshot()) {
+            if (slowFlow.flow().equals(flow)) {
+                flows.add(slowFlow);
+            }
+        }
+        flows.sort(Comparator.comparingLong(SlowFlow::durationNanos).reversed());
+        return flows;
+    }
+
+    /**
+     * Per action, over the recent action samples of all flows.
+     */
+    public Map<String, ActionBreakdown> getActionBreakdown() {
+        Map<String, List<ActionSample>> byAction = new HashMap<>();
+        for (ActionSample sample : actionSamples.snapshot()) {
+            byAction.computeIfAbsent(sample.action(), action -> new ArrayList<>()).add(sample);
+        }
+        Map<String, ActionBreakdown> breakdown = new TreeMap<>();
+        byAction.forEach((action, samples) -> breakdown.put(action, ActionBreakdown.of(samples)));
+        return breakdown;
+    }
+
+    /**
+     * @param meanAllocatedBytes over the samples whose allocation was measured, -1 if none was
+     */
+    public record ActionBreakdown(int count,
+                                  int failures,
+                                  long meanNanos,
+                                  long p50Nanos,
+                                  long p99Nanos,
+                                  long maxNanos,
+                                  long meanAllocatedBytes) {
+
+        static ActionBreakdown of(List<ActionSample> samples) {
+            long[] durations = new long[samples.size()];
+            int failures = 0;
+            long allocated = 0;
+            int measured = 0;
+            for (int i = 0; i < durations.length; i++) {
+                ActionSample sample = samples.get(i);
+                durations[i] = sample.durationNanos();
+                if (sample.failed()) {
+                    failures++;
+                }
+                if (sample.allocatedBytes() >= 0) {
+                    allocated += sample.allocatedBytes();
+                    measured++;
+                }
+            }
+            Arrays.sort(durations);
+            long total = 0;
+            for (long duration : durations) {
+                total += duration;
+            }
+            return new ActionBreakdown(durations.length, failures, total / durations.length,
+                    percentile(durations, 0.5), percentile(durations, 0.99), durations[durations.length - 1],
+                    measured == 0 ? -1 : allocated / measured);
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.dil.logicengine.profiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring keeping the most recent entries. Writers claim a slot with one atomic increment and never
+ * wait for each other or for readers; once the ring is full, each write overwrites the oldest entry.
+ * {@link #snapshot()} is a best-effort copy that may miss entries written while it runs.
+ */
+final class ProfileRing<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+
+    ProfileRing(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, was " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(Math.max(1, size));
+        this.mask = slots.length() - 1;
+    }
+
+    void add(T entry) {
+        slots.lazySet((int) (cursor.getAndIncrement() & mask), entry);
+    }
+
+    /**
+     * Entries currently held, oldest first.
+     */
+    List<T> snapshot() {
+        long end = cursor.get();
+        long start = Math.max(0, end - slots.length());
+        List<T> entries = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            T entry = slots.get((int) (i & mask));
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
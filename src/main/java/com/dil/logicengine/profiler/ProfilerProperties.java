@@ -0,0 +1,40 @@
+package com.dil.logicengine.profiler;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "logicengine.profiler")
+public class ProfilerProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Flows taking at least this long are kept with their per-action timings.
+     */
+    private Duration slowFlowThreshold = Duration.ofMillis(200);
+
+    /**
+     * Most recent action executions kept for the per-action breakdown; rounded up to a power of two.
+     */
+    private int actionSamples = 4096;
+
+    /**
+     * Most recent slow flows kept; rounded up to a power of two.
+     */
+    private int slowFlows = 128;
+
+    /**
+     * Action timings kept per slow flow; bounds the detail of {@code executeForEach} and bulk fan-outs.
+     */
+    private int maxActionsPerFlow = 256;
+
+    /**
+     * Measure bytes allocated by the executing thread around each synchronous action.
+     */
+    private boolean allocation = true;
+}
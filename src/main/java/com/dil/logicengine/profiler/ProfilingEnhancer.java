@@ -0,0 +1,107 @@
+package com.dil.logicengine.profiler;
+
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.enhancer.ActionEnhancer;
+import com.dil.logicengine.enhancer.ActionInterceptor;
+import com.dil.logicengine.enhancer.ActionMetadata;
+import com.dil.logicengine.enhancer.ActionPipeline;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Feeds the {@link FlowProfiler}: times every action execution, measures what the executing thread allocated
+ * while a synchronous action ran, and emits an {@link ActionExecutionEvent} for JFR. Async actions are timed
+ * until their stage completes; their allocation is spread over other threads and is not measured.
+ * <p>
+ * Runs outermost, ahead of metrics, so samples include the time spent in every other enhancer.
+ */
+@Component
+public class ProfilingEnhancer implements ActionEnhancer {
+
+    public static final int ORDER = 20;
+
+    private final FlowProfiler profiler;
+    private final com.sun.management.ThreadMXBean threads;
+
+    public ProfilingEnhancer(FlowProfiler profiler, ProfilerProperties properties) {
+        this.profiler = profiler;
+        this.threads = properties.isAllocation() ? allocationCounter() : null;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public boolean supports(ActionMetadata metadata) {
+        return profiler.isEnabled();
+    }
+
+    @Override
+    public ActionInterceptor compile(ActionMetadata metadata) {
+        String actionName = metadata.getName();
+
+        return new ActionInterceptor() {
+            @Override
+            public Object intercept(LogicAction<Object, Object> action, Object input, ActionPipeline next) {
+                FlowProfile profile = FlowProfile.current();
+                ActionExecutionEvent event = new ActionExecutionEvent();
+                event.begin();
+                long allocatedBefore = allocatedBytes();
+                long start = System.nanoTime();
+                boolean failed = true;
+                try {
+                    Object result = next.execute(action, input);
+                    failed = false;
+                    return result;
+                } finally {
+                    long duration = System.nanoTime() - start;
+                    long allocatedAfter = allocatedBytes();
+                    long allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+                    record(actionName, profile, start, duration, allocated, failed, event);
+                }
+            }
+
+            @Override
+            public CompletionStage<Object> interceptAsync(LogicAction<Object, Object> action, Object input, ActionPipeline next) {
+                FlowProfile profile = FlowProfile.current();
+                ActionExecutionEvent event = new ActionExecutionEvent();
+                event.begin();
+                long start = System.nanoTime();
+                return next.executeAsync(action, input).whenComplete((result, error) ->
+                        record(actionName, profile, start, System.nanoTime() - start, -1, error != null, event));
+            }
+        };
+    }
+
+    private void record(String action, FlowProfile profile, long start, long duration, long allocated, boolean failed,
+                        ActionExecutionEvent event) {
+        String flow = profile == null ? null : profile.flow;
+        long offset = profile == null ? 0 : start - profile.startedNanos;
+        profiler.record(new ActionSample(flow, action, offset, duration, allocated, failed), profile);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.flow = flow;
+            event.action = action;
+            event.allocatedBytes = allocated;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    private long allocatedBytes() {
+        return threads == null ? -1 : threads.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.dil.logicengine.profiler;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A flow that took at least {@code logicengine.profiler.slow-flow-threshold}, with its actions in start order.
+ *
+ * @param droppedActions actions beyond {@code logicengine.profiler.max-actions-per-flow} that were not kept
+ */
+public record SlowFlow(String flow,
+                       Instant startedAt,
+                       long durationNanos,
+                       boolean failed,
+                       List<ActionSample> actions,
+                       int droppedActions) {
+}
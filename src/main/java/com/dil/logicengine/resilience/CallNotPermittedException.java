@@ -0,0 +1,14 @@
+package com.dil.logicengine.resilience;
+
+import com.dil.logicengine.api.ActionException;
+
+/**
+ * Thrown instead of executing an action whose circuit breaker is open or whose bulkhead is full. It is
+ * retryable: the request is fine, the dependency just needs time.
+ */
+public class CallNotPermittedException extends ActionException {
+
+    public CallNotPermittedException(Class<?> actionType, String message) {
+        super(actionType, message, true);
+    }
+}
@@ -0,0 +1,165 @@
+package com.dil.logicengine.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker plus bulkhead for one action class. The state, the half-open probe permits and successes sit
+ * in one immutable {@link Phase} swapped by CAS, so no caller can see a transition without its counters; the hot
+ * path of a closed breaker is one volatile read on entry and one window update on exit.
+ * <ul>
+ *     <li>CLOSED: calls pass; opens once the window holds {@code minimumCalls} and the failure rate reaches
+ *     the threshold.</li>
+ *     <li>OPEN: calls are rejected until {@code waitInOpenState} has passed, then the first caller moves it
+ *     to HALF_OPEN.</li>
+ *     <li>HALF_OPEN: {@code halfOpenCalls} probes pass; all succeeding closes the breaker, any failure
+ *     reopens it.</li>
+ * </ul>
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final Phase CLOSED = new Phase(State.CLOSED, 0, 0, 0);
+
+    private final String name;
+    private final ResilienceProperties.Settings settings;
+    private final SlidingWindow window;
+    private final Semaphore bulkhead;
+    private final AtomicReference<Phase> phase = new AtomicReference<>(CLOSED);
+
+    CircuitBreaker(String name, ResilienceProperties.Settings settings) {
+        this.name = name;
+        this.settings = settings;
+        this.window = new SlidingWindow(settings.getSlidingWindow().toNanos());
+        this.bulkhead = new Semaphore(settings.getMaxConcurrentCalls());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return phase.get().state();
+    }
+
+    public float getFailureRate() {
+        return window.snapshot(System.nanoTime()).failureRate();
+    }
+
+    public int getBufferedCalls() {
+        return window.snapshot(System.nanoTime()).calls();
+    }
+
+    public int getAvailableConcurrentCalls() {
+        return bulkhead.availablePermits();
+    }
+
+    /**
+     * Whether the breaker lets a call through. Every permitted call must be followed by {@link #onSuccess},
+     * {@link #onFailure} or {@link #onIgnored}. A half-open probe that is never settled keeps the breaker
+     * half-open for good.
+     */
+    boolean tryAcquirePermission() {
+        while (true) {
+            Phase current = phase.get();
+            Phase next;
+            switch (current.state()) {
+                case CLOSED -> {
+                    return true;
+                }
+                case OPEN -> {
+                    if (System.nanoTime() - current.openedAt() < settings.getWaitInOpenState().toNanos()) {
+                        return false;
+                    }
+                    // The first caller past the wait takes the first probe permit
+                    next = new Phase(State.HALF_OPEN, current.openedAt(), settings.getHalfOpenCalls() - 1, 0);
+                }
+                default -> {
+                    if (current.permits() <= 0) {
+                        return false;
+                    }
+                    next = current.withPermits(current.permits() - 1);
+                }
+            }
+            if (phase.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    void onSuccess() {
+        while (true) {
+            Phase current = phase.get();
+            if (current.state() != State.HALF_OPEN) {
+                window.record(false, System.nanoTime());
+                return;
+            }
+            int successes = current.successes() + 1;
+            Phase next = successes >= settings.getHalfOpenCalls()
+                    ? CLOSED
+                    : new Phase(State.HALF_OPEN, current.openedAt(), current.permits(), successes);
+            if (phase.compareAndSet(current, next)) {
+                if (next == CLOSED) {
+                    window.reset();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * A failure that says something about the dependency; the caller decides which do.
+     */
+    void onFailure() {
+        long now = System.nanoTime();
+        while (true) {
+            Phase current = phase.get();
+            if (current.state() == State.HALF_OPEN) {
+                if (phase.compareAndSet(current, new Phase(State.OPEN, now, 0, 0))) {
+                    return;
+                }
+                continue;
+            }
+            window.record(true, now);
+            if (current.state() == State.CLOSED) {
+                SlidingWindow.Snapshot snapshot = window.snapshot(now);
+                if (snapshot.calls() >= settings.getMinimumCalls()
+                        && snapshot.failureRate() >= settings.getFailureRateThreshold()) {
+                    phase.compareAndSet(current, new Phase(State.OPEN, now, 0, 0));
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * A permitted call ended in a way that says nothing about the dependency. It is not recorded; a half-open
+     * probe gives its permit back.
+     */
+    void onIgnored() {
+        while (true) {
+            Phase current = phase.get();
+            int outstanding = settings.getHalfOpenCalls() - current.successes();
+            if (current.state() != State.HALF_OPEN || current.permits() >= outstanding
+                    || phase.compareAndSet(current, current.withPermits(current.permits() + 1))) {
+                return;
+            }
+        }
+    }
+
+    Semaphore bulkhead() {
+        return bulkhead;
+    }
+
+    /**
+     * @param permits half-open probes still to hand out
+     * @param successes half-open probes that succeeded
+     */
+    private record Phase(State state, long openedAt, int permits, int successes) {
+
+        Phase withPermits(int permits) {
+            return new Phase(state, openedAt, permits, successes);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.dil.logicengine.resilience;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link CircuitBreaker} per external action class, keyed by simple name.
+ */
+@Component
+@RequiredArgsConstructor
+public class CircuitBreakerRegistry {
+
+    private final ResilienceProperties properties;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreaker breakerFor(String actionName) {
+        return breakers.computeIfAbsent(actionName,
+                name -> new CircuitBreaker(name, properties.settingsFor(name)));
+    }
+
+    public Collection<CircuitBreaker> getAll() {
+        return breakers.values();
+    }
+}
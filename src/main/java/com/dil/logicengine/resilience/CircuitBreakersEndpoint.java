@@ -0,0 +1,40 @@
+package com.dil.logicengine.resilience;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/circuitbreakers}: state, failure rate and free bulkhead permits of every breaker.
+ */
+@Component
+@Endpoint(id = "circuitbreakers")
+@RequiredArgsConstructor
+public class CircuitBreakersEndpoint {
+
+    private final CircuitBreakerRegistry registry;
+
+    @ReadOperation
+    public Map<String, BreakerDescriptor> circuitBreakers() {
+        Map<String, BreakerDescriptor> breakers = new TreeMap<>();
+        for (CircuitBreaker breaker : registry.getAll()) {
+            breakers.put(breaker.getName(), BreakerDescriptor.of(breaker));
+        }
+        return breakers;
+    }
+
+    public record BreakerDescriptor(CircuitBreaker.State state,
+                                    float failureRate,
+                                    int bufferedCalls,
+                                    int availableConcurrentCalls) {
+
+        static BreakerDescriptor of(CircuitBreaker breaker) {
+            return new BreakerDescriptor(breaker.getState(), breaker.getFailureRate(),
+                    breaker.getBufferedCalls(), breaker.getAvailableConcurrentCalls());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.dil.logicengine.resilience;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lists breaker states under {@code /actuator/health}. Open breakers are reported but never take the
+ * application down: a degraded dependency is not a reason to restart this service.
+ */
+@Component("circuitBreakers")
+@RequiredArgsConstructor
+public class CircuitBreakersHealthIndicator implements HealthIndicator {
+
+    private final CircuitBreakerRegistry registry;
+
+    @Override
+    public Health health() {
+        Health.Builder health = Health.up();
+        for (CircuitBreaker breaker : registry.getAll()) {
+            health.withDetail(breaker.getName(), breaker.getState());
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.dil.logicengine.resilience;
+
+import com.dil.logicengine.api.ActionException;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.enhancer.ActionEnhancer;
+import com.dil.logicengine.enhancer.ActionInterceptor;
+import com.dil.logicengine.enhancer.ActionMetadata;
+import com.dil.logicengine.enhancer.ActionPipeline;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guards every {@code ExternalAction} with its class's {@link CircuitBreaker} and bulkhead. Rejected calls fail
+ * immediately with a {@link CallNotPermittedException}, so the flow compensates without waiting on the
+ * dependency.
+ * <p>
+ * Only failures that say something about the dependency count against the breaker: retryable
+ * {@link ActionException}s and anything that is not an {@code ActionException}, such as timeouts, I/O errors or
+ * an Error. A non-retryable {@code ActionException} is a business outcome of a dependency that answered, and is
+ * not recorded.
+ * <p>
+ * Runs outside the retry enhancer: the breaker counts one outcome per execution after retries, and an open
+ * breaker is not retried in-flow.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResilienceEnhancer implements ActionEnhancer {
+
+    public static final int ORDER = 70;
+
+    private final ResilienceProperties properties;
+    private final CircuitBreakerRegistry registry;
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public boolean supports(ActionMetadata metadata) {
+        return properties.isEnabled() && metadata.isExternal();
+    }
+
+    @Override
+    public ActionInterceptor compile(ActionMetadata metadata) {
+        Class<?> actionClass = metadata.getActionClass();
+        CircuitBreaker breaker = registry.breakerFor(metadata.getName());
+        Semaphore bulkhead = breaker.bulkhead();
+        long maxWaitNanos = properties.settingsFor(metadata.getName()).getMaxWait().toNanos();
+        String breakerOpen = "Circuit breaker of " + metadata.getName() + " is open";
+        String bulkheadFull = "Bulkhead of " + metadata.getName() + " is full";
+
+        return new ActionInterceptor() {
+            @Override
+            public Object intercept(LogicAction<Object, Object> action, Object input, ActionPipeline next) {
+                if (!acquire(bulkhead, maxWaitNanos)) {
+                    throw new CallNotPermittedException(actionClass, bulkheadFull);
+                }
+                try {
+                    if (!breaker.tryAcquirePermission()) {
+                        throw new CallNotPermittedException(actionClass, breakerOpen);
+                    }
+                    // Settled in finally: an Error or interrupt must not leave a half-open probe outstanding
+                    Throwable failure = null;
+                    try {
+                        return next.execute(action, input);
+                    } catch (Throwable e) {
+                        failure = e;
+                        throw e;
+                    } finally {
+                        settle(breaker, failure);
+                    }
+                } finally {
+                    bulkhead.release();
+                }
+            }
+
+            @Override
+            public CompletionStage<Object> interceptAsync(LogicAction<Object, Object> action, Object input, ActionPipeline next) {
+                // Async callers are never made to wait for a permit
+                if (!bulkhead.tryAcquire()) {
+                    return CompletableFuture.failedFuture(new CallNotPermittedException(actionClass, bulkheadFull));
+                }
+                if (!breaker.tryAcquirePermission()) {
+                    bulkhead.release();
+                    return CompletableFuture.failedFuture(new CallNotPermittedException(actionClass, breakerOpen));
+                }
+                CompletionStage<Object> stage = null;
+                try {
+                    stage = next.executeAsync(action, input);
+                } catch (RuntimeException e) {
+                    stage = CompletableFuture.failedFuture(e);
+                } finally {
+                    if (stage == null) {
+                        breaker.onFailure();
+                        bulkhead.release();
+                    }
+                }
+                // Cancellation completes the stage exceptionally, so it counts as a failure too
+                return stage.whenComplete((result, error) -> {
+                    settle(breaker, error);
+                    bulkhead.release();
+                });
+            }
+        };
+    }
+
+    private static void settle(CircuitBreaker breaker, Throwable failure) {
+        if (failure == null) {
+            breaker.onSuccess();
+            return;
+        }
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof ActionException actionException && !actionException.isRetryable()) {
+            breaker.onIgnored();
+        } else {
+            breaker.onFailure();
+        }
+    }
+
+    private static boolean acquire(Semaphore bulkhead, long maxWaitNanos) {
+        if (maxWaitNanos <= 0) {
+            return bulkhead.tryAcquire();
+        }
+        try {
+            return bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
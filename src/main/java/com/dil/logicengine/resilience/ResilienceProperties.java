@@ -0,0 +1,69 @@
+package com.dil.logicengine.resilience;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker and bulkhead settings for {@code ExternalAction}s: {@link #defaults} apply to every external
+ * action, {@link #actions} replaces them for individual actions by simple name.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "logicengine.resilience")
+public class ResilienceProperties {
+
+    private boolean enabled = true;
+
+    private Settings defaults = new Settings();
+
+    private Map<String, Settings> actions = new HashMap<>();
+
+    public Settings settingsFor(String actionName) {
+        return actions.getOrDefault(actionName, defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Settings {
+
+        /**
+         * Failure percentage within the sliding window at which the breaker opens.
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * Calls the window must hold before the failure rate is evaluated.
+         */
+        private int minimumCalls = 20;
+
+        /**
+         * Length of the sliding window; outcomes older than this no longer count.
+         */
+        private Duration slidingWindow = Duration.ofSeconds(10);
+
+        /**
+         * How long the breaker stays open before letting probe calls through.
+         */
+        private Duration waitInOpenState = Duration.ofSeconds(5);
+
+        /**
+         * Probe calls allowed while half-open; all must succeed to close the breaker.
+         */
+        private int halfOpenCalls = 5;
+
+        /**
+         * Concurrent executions allowed per action class.
+         */
+        private int maxConcurrentCalls = 50;
+
+        /**
+         * How long a synchronous call may wait for a bulkhead permit; zero rejects immediately.
+         */
+        private Duration maxWait = Duration.ZERO;
+    }
+}
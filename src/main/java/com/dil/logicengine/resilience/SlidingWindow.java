@@ -0,0 +1,67 @@
+package com.dil.logicengine.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-based window of call outcomes, split into buckets that are recycled as time moves on. Updates are
+ * lock-free; a bucket is claimed for a new period by CAS on its epoch, so counts of a call racing with the
+ * rollover may land in the new period. That is acceptable for a failure rate.
+ */
+final class SlidingWindow {
+
+    private static final int BUCKETS = 10;
+
+    private final long bucketNanos;
+    private final AtomicLong[] epochs = new AtomicLong[BUCKETS];
+    private final AtomicInteger[] calls = new AtomicInteger[BUCKETS];
+    private final AtomicInteger[] failures = new AtomicInteger[BUCKETS];
+
+    SlidingWindow(long windowNanos) {
+        this.bucketNanos = Math.max(1, windowNanos / BUCKETS);
+        for (int i = 0; i < BUCKETS; i++) {
+            epochs[i] = new AtomicLong(-1);
+            calls[i] = new AtomicInteger();
+            failures[i] = new AtomicInteger();
+        }
+    }
+
+    void record(boolean failure, long nowNanos) {
+        long epoch = nowNanos / bucketNanos;
+        int index = (int) Math.floorMod(epoch, (long) BUCKETS);
+        long current = epochs[index].get();
+        if (current != epoch && epochs[index].compareAndSet(current, epoch)) {
+            calls[index].set(0);
+            failures[index].set(0);
+        }
+        calls[index].incrementAndGet();
+        if (failure) {
+            failures[index].incrementAndGet();
+        }
+    }
+
+    Snapshot snapshot(long nowNanos) {
+        long oldest = nowNanos / bucketNanos - BUCKETS + 1;
+        int totalCalls = 0;
+        int totalFailures = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (epochs[i].get() >= oldest) {
+                totalCalls += calls[i].get();
+                totalFailures += failures[i].get();
+            }
+        }
+        return new Snapshot(totalCalls, totalFailures);
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            epochs[i].set(-1);
+        }
+    }
+
+    record Snapshot(int calls, int failures) {
+        float failureRate() {
+            return calls == 0 ? 0 : failures * 100f / calls;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.dil.logicengine.retry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Token bucket that stops retries when most calls are failing, so a struggling dependency is not hit with a
+ * multiple of its normal load. Every failure takes a token and every success returns {@code tokenRatio} of one;
+ * retries are only allowed while more than half of the tokens are left.
+ */
+final class RetryBudget {
+
+    // Tokens are kept in thousandths so the bucket can be updated with a single CAS
+    private static final int SCALE = 1000;
+
+    private final int maxTokens;
+    private final int threshold;
+    private final int tokenRatio;
+    private final AtomicInteger tokens;
+
+    RetryBudget(int maxTokens, double tokenRatio) {
+        this.maxTokens = maxTokens * SCALE;
+        this.threshold = this.maxTokens / 2;
+        this.tokenRatio = (int) (tokenRatio * SCALE);
+        this.tokens = new AtomicInteger(this.maxTokens);
+    }
+
+    void onSuccess() {
+        if (tokens.get() < maxTokens) {
+            tokens.updateAndGet(current -> Math.min(maxTokens, current + tokenRatio));
+        }
+    }
+
+    /**
+     * Records a failure and returns whether it may be retried.
+     */
+    boolean tryRetry() {
+        int remaining = tokens.updateAndGet(current -> Math.max(0, current - SCALE));
+        return remaining > threshold;
+    }
+}
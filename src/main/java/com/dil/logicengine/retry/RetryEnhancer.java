@@ -0,0 +1,189 @@
+package com.dil.logicengine.retry;
+
+import com.dil.logicengine.api.ActionException;
+import com.dil.logicengine.api.FlowDeadline;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.enhancer.ActionEnhancer;
+import com.dil.logicengine.enhancer.ActionInterceptor;
+import com.dil.logicengine.enhancer.ActionMetadata;
+import com.dil.logicengine.enhancer.ActionPipeline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.context.Context;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries retryable failures according to the action's {@link RetryPolicy}, within a per-action
+ * {@link RetryBudget}. The flow only sees the failure (and compensates) once retries are exhausted; it is then
+ * reported as an {@link ActionException} with {@code retryable=true}. Non-retryable failures pass through
+ * untouched on the first attempt.
+ * <p>
+ * Runs inside metrics and caching but outside tracing, so every attempt gets its own action span. Async
+ * executions wait out the backoff on a timer and resume on a virtual thread. Synchronous executions sleep on
+ * the calling thread: on a virtual thread (DAG branches, ordered listeners) that frees the carrier, on a platform
+ * thread (a container or request thread) each sleep is capped at {@code platform-thread-max-backoff}.
+ */
+@Component
+public class RetryEnhancer implements ActionEnhancer {
+
+    public static final int ORDER = 75;
+
+    private final RetryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService retryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public RetryEnhancer(RetryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public boolean supports(ActionMetadata metadata) {
+        RetryPolicy policy = policyFor(metadata);
+        return policy != null && (policy.getMaxAttempts() > 1 || !policy.getRetryOn().isEmpty());
+    }
+
+    @Override
+    public ActionInterceptor compile(ActionMetadata metadata) {
+        RetryPolicy policy = policyFor(metadata);
+        Class<?> actionClass = metadata.getActionClass();
+        long platformThreadMaxBackoffNanos = properties.getPlatformThreadMaxBackoff().toNanos();
+        RetryBudget budget = new RetryBudget(properties.getBudgetMaxTokens(), properties.getBudgetTokenRatio());
+        Counter retries = Counter.builder("logicengine.action.retries")
+                .tag("action", metadata.getName()).tag("outcome", "retried").register(meterRegistry);
+        Counter rejected = Counter.builder("logicengine.action.retries")
+                .tag("action", metadata.getName()).tag("outcome", "budget_exhausted").register(meterRegistry);
+
+        return new ActionInterceptor() {
+            @Override
+            public Object intercept(LogicAction<Object, Object> action, Object input, ActionPipeline next) {
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        Object result = next.execute(action, input);
+                        budget.onSuccess();
+                        return result;
+                    } catch (RuntimeException e) {
+                        long delay = retryDelay(e, attempt);
+                        if (delay < 0) {
+                            throw failure(e);
+                        }
+                        if (!Thread.currentThread().isVirtual()) {
+                            delay = Math.min(delay, platformThreadMaxBackoffNanos);
+                        }
+                        try {
+                            TimeUnit.NANOSECONDS.sleep(delay);
+                        } catch (InterruptedException interrupted) {
+                            Thread.currentThread().interrupt();
+                            throw failure(e);
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public CompletionStage<Object> interceptAsync(LogicAction<Object, Object> action, Object input, ActionPipeline next) {
+                return attemptAsync(action, input, next, 1, Context.current());
+            }
+
+            private CompletableFuture<Object> attemptAsync(LogicAction<Object, Object> action,
+                                                           Object input,
+                                                           ActionPipeline next,
+                                                           int attempt,
+                                                           Context context) {
+                CompletableFuture<Object> execution;
+                try {
+                    execution = next.executeAsync(action, input).toCompletableFuture();
+                } catch (RuntimeException e) {
+                    execution = CompletableFuture.failedFuture(e);
+                }
+
+                return execution.handle((result, error) -> {
+                    if (error == null) {
+                        budget.onSuccess();
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (!(cause instanceof RuntimeException e)) {
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    long delay = retryDelay(e, attempt);
+                    if (delay < 0) {
+                        return CompletableFuture.failedFuture(failure(e));
+                    }
+                    // No thread waits for the backoff; the next attempt starts on a virtual thread in the flow's context
+                    Executor delayed = CompletableFuture.delayedExecutor(
+                            delay, TimeUnit.NANOSECONDS, context.wrap(retryExecutor));
+                    return CompletableFuture.supplyAsync(() -> attemptAsync(action, input, next, attempt + 1, context), delayed)
+                            .thenCompose(nextAttempt -> nextAttempt);
+                }).thenCompose(stage -> stage);
+            }
+
+            /**
+             * Backoff before the next attempt in nanoseconds, or -1 if the failure is not retried. No retry is
+             * made whose backoff alone would outlast the flow deadline.
+             */
+            private long retryDelay(RuntimeException e, int attempt) {
+                if (!isRetryable(policy, e)) {
+                    return -1;
+                }
+                // Every retryable failure draws from the budget, including the last attempt's
+                boolean withinBudget = budget.tryRetry();
+                if (attempt >= policy.getMaxAttempts()) {
+                    return -1;
+                }
+                long delay = policy.backoffNanos(attempt);
+                FlowDeadline deadline = FlowDeadline.current();
+                if (deadline != null && delay >= deadline.remainingNanos()) {
+                    return -1;
+                }
+                if (!withinBudget) {
+                    rejected.increment();
+                    return -1;
+                }
+                retries.increment();
+                return delay;
+            }
+
+            private RuntimeException failure(RuntimeException e) {
+                if (!isRetryable(policy, e) || e instanceof ActionException) {
+                    return e;
+                }
+                return new ActionException(actionClass, e.getMessage(), e, true);
+            }
+        };
+    }
+
+    private RetryPolicy policyFor(ActionMetadata metadata) {
+        RetryPolicy policy = properties.getPolicies().get(metadata.getName());
+        if (policy == null && metadata.isExternal()) {
+            policy = properties.getPolicies().get(RetryProperties.EXTERNAL);
+        }
+        if (policy == null && metadata.isDb()) {
+            policy = properties.getPolicies().get(RetryProperties.DB);
+        }
+        if (policy == null) {
+            policy = properties.getPolicies().get(RetryProperties.DEFAULT);
+        }
+        return policy;
+    }
+
+    private static boolean isRetryable(RetryPolicy policy, RuntimeException e) {
+        return e instanceof ActionException actionException
+                ? actionException.isRetryable()
+                : policy.isRetryable(e);
+    }
+}
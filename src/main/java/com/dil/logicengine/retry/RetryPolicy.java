@@ -0,0 +1,58 @@
+package com.dil.logicengine.retry;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How failures of one kind of action are retried. A failure is retryable when it is an
+ * {@code ActionException} with {@code retryable=true}, or an instance of one of {@link #retryOn}.
+ */
+@Getter
+@Setter
+public class RetryPolicy {
+
+    /**
+     * Total executions including the first; 1 disables retries.
+     */
+    private int maxAttempts = 1;
+
+    private Duration initialBackoff = Duration.ofMillis(100);
+
+    private double multiplier = 2.0;
+
+    private Duration maxBackoff = Duration.ofSeconds(5);
+
+    /**
+     * Fraction of each backoff that is randomized away (0 = fixed delays, 1 = full jitter), so that flows
+     * failing together do not retry in lockstep.
+     */
+    private double jitter = 0.5;
+
+    /**
+     * Exception types treated as transient in addition to retryable {@code ActionException}s.
+     */
+    private List<Class<? extends Throwable>> retryOn = new ArrayList<>();
+
+    public boolean isRetryable(Throwable error) {
+        for (Class<? extends Throwable> type : retryOn) {
+            if (type.isInstance(error)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Delay before the given retry ({@code 1} = first retry), exponential with jitter, in nanoseconds.
+     */
+    public long backoffNanos(int retry) {
+        double exponential = initialBackoff.toNanos() * Math.pow(multiplier, retry - 1);
+        double capped = Math.min(exponential, maxBackoff.toNanos());
+        return (long) (capped * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.dil.logicengine.retry;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "logicengine.retry")
+public class RetryProperties {
+
+    public static final String DEFAULT = "default";
+    public static final String EXTERNAL = "external";
+    public static final String DB = "db";
+
+    /**
+     * Policies keyed by action simple name, or by the action kind {@code external}, {@code db} or
+     * {@code default}; the most specific entry wins.
+     */
+    private Map<String, RetryPolicy> policies = new HashMap<>();
+
+    /**
+     * Size of each action's retry budget, in failures.
+     */
+    private int budgetMaxTokens = 100;
+
+    /**
+     * Tokens returned to the budget per successful execution.
+     */
+    private double budgetTokenRatio = 0.1;
+
+    /**
+     * Longest backoff a synchronous retry sleeps on a platform thread (a container or request thread); longer
+     * backoffs are shortened to it. Virtual threads wait out the policy's full backoff.
+     */
+    private Duration platformThreadMaxBackoff = Duration.ofMillis(200);
+}
@@ -0,0 +1,51 @@
+package com.dil.logicengine.serde;
+
+import com.dil.logicengine.api.AvroDeserializer;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.reflect.ReflectDatumReader;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificRecord;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binary Avro deserializer. Generated {@link SpecificRecord} classes are read with their own schema,
+ * any other type through Avro reflection. Readers are built once per target type and shared; decoders
+ * are reused per thread.
+ */
+@Component
+public class CachingAvroDeserializer implements AvroDeserializer {
+
+    private final Map<Class<?>, DatumReader<?>> readers = new ConcurrentHashMap<>();
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(byte[] data, Class<T> targetType) {
+        if (data == null) {
+            return null;
+        }
+        DatumReader<T> reader = (DatumReader<T>) readers.computeIfAbsent(targetType, CachingAvroDeserializer::createReader);
+
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, decoders.get());
+        decoders.set(decoder);
+        try {
+            return reader.read(null, decoder);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read Avro payload as " + targetType.getSimpleName(), e);
+        }
+    }
+
+    private static DatumReader<?> createReader(Class<?> targetType) {
+        if (SpecificRecord.class.isAssignableFrom(targetType)) {
+            return new SpecificDatumReader<>(targetType);
+        }
+        return new ReflectDatumReader<>(targetType);
+    }
+}
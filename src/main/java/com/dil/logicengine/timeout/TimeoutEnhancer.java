@@ -0,0 +1,136 @@
+package com.dil.logicengine.timeout;
+
+import com.dil.logicengine.api.ActionTimeoutException;
+import com.dil.logicengine.api.FlowDeadline;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.enhancer.ActionEnhancer;
+import com.dil.logicengine.enhancer.ActionInterceptor;
+import com.dil.logicengine.enhancer.ActionMetadata;
+import com.dil.logicengine.enhancer.ActionPipeline;
+import io.opentelemetry.context.Context;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Bounds executions of actions with a configured timeout ({@code logicengine.timeout.*}) by that timeout and by
+ * what is left of the {@link FlowDeadline}, whichever is shorter. Overdue executions are cancelled (the worker is
+ * interrupted) and fail with an {@link ActionTimeoutException}, so the flow compensates.
+ * <p>
+ * Actions without a configured timeout run inline on the caller's thread and are never cancelled: the flow
+ * deadline is only checked cooperatively, here and by the engine before each step. Only a synchronous action
+ * with a timeout runs on a virtual thread while the caller waits, so thread-bound state other than the
+ * OpenTelemetry context (MDC, a caller's transaction) does not reach it. Inside the retry enhancer, so every
+ * attempt is bounded separately.
+ */
+@Component
+@RequiredArgsConstructor
+public class TimeoutEnhancer implements ActionEnhancer {
+
+    public static final int ORDER = 80;
+
+    private final TimeoutProperties properties;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public ActionInterceptor compile(ActionMetadata metadata) {
+        Duration timeout = properties.timeoutFor(metadata.getName());
+        long timeoutNanos = timeout == null ? -1 : timeout.toNanos();
+        Class<?> actionClass = metadata.getActionClass();
+        String timedOut = metadata.getName() + " timed out";
+
+        return new ActionInterceptor() {
+            @Override
+            public Object intercept(LogicAction<Object, Object> action, Object input, ActionPipeline next) {
+                if (timeoutNanos < 0) {
+                    if (FlowDeadline.currentIsExpired()) {
+                        throw new ActionTimeoutException(actionClass, timedOut);
+                    }
+                    return next.execute(action, input);
+                }
+                long limit = limitNanos(timeoutNanos);
+                if (limit == 0) {
+                    throw new ActionTimeoutException(actionClass, timedOut);
+                }
+
+                Future<Object> execution = executor.submit(Context.current().wrap(() -> next.execute(action, input)));
+                try {
+                    return execution.get(limit, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    execution.cancel(true);
+                    throw new ActionTimeoutException(actionClass, timedOut);
+                } catch (InterruptedException e) {
+                    execution.cancel(true);
+                    Thread.currentThread().interrupt();
+                    throw new ActionTimeoutException(actionClass, metadata.getName() + " was interrupted");
+                } catch (ExecutionException e) {
+                    throw rethrow(e.getCause());
+                }
+            }
+
+            @Override
+            public CompletionStage<Object> interceptAsync(LogicAction<Object, Object> action, Object input, ActionPipeline next) {
+                if (timeoutNanos < 0) {
+                    if (FlowDeadline.currentIsExpired()) {
+                        return CompletableFuture.failedFuture(new ActionTimeoutException(actionClass, timedOut));
+                    }
+                    return next.executeAsync(action, input);
+                }
+                long limit = limitNanos(timeoutNanos);
+                if (limit == 0) {
+                    return CompletableFuture.failedFuture(new ActionTimeoutException(actionClass, timedOut));
+                }
+
+                CompletableFuture<Object> execution = next.executeAsync(action, input).toCompletableFuture();
+                return execution.copy()
+                        .orTimeout(limit, TimeUnit.NANOSECONDS)
+                        .handle((result, error) -> {
+                            if (error == null) {
+                                return result;
+                            }
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error;
+                            if (cause instanceof TimeoutException) {
+                                // Signals the action's own future; whether that stops the work is up to the action
+                                execution.cancel(true);
+                                throw new ActionTimeoutException(actionClass, timedOut);
+                            }
+                            throw rethrow(cause);
+                        });
+            }
+        };
+    }
+
+    /**
+     * Nanoseconds an execution with a configured timeout may take; 0 if the deadline has already passed.
+     */
+    private static long limitNanos(long timeoutNanos) {
+        FlowDeadline deadline = FlowDeadline.current();
+        return deadline == null ? timeoutNanos : Math.min(timeoutNanos, deadline.remainingNanos());
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException e) {
+            return e;
+        }
+        if (cause instanceof Error e) {
+            throw e;
+        }
+        return new CompletionException(cause);
+    }
+}
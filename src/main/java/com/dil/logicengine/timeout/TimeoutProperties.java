@@ -0,0 +1,35 @@
+package com.dil.logicengine.timeout;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "logicengine.timeout")
+public class TimeoutProperties {
+
+    /**
+     * Timeout of every action without its own entry; unset means actions are only bounded by the flow deadline.
+     */
+    private Duration defaultActionTimeout;
+
+    /**
+     * Per-action timeouts keyed by action simple name.
+     */
+    private Map<String, Duration> actions = new HashMap<>();
+
+    /**
+     * Share of {@code max.poll.interval.ms} that flows started by a Kafka listener may use, leaving the rest for
+     * committing and polling again.
+     */
+    private double pollIntervalShare = 0.8;
+
+    public Duration timeoutFor(String actionName) {
+        return actions.getOrDefault(actionName, defaultActionTimeout);
+    }
+}
@@ -17,10 +17,12 @@ public class GreeterEventListener {
             topic = "greeting.events",
             groupId = "greeting-service-json",
             payloadType = Greeting.class,
-            deserialization = DeserialisationType.JSON
+            deserialization = DeserialisationType.JSON,
+            retryDelays = {1_000, 10_000},
+            deadLetter = true
     )
     public void handleGreeting(Greeting event) {
-        greeterService.greet(event.getName());
+        greeterService.greetOrThrow(event.getName());
     }
 
     @LogicEngineListener(
@@ -2,4 +2,10 @@ package com.dil.service;
 
 public interface GreeterService {
     String greet(String name);
+
+    /**
+     * Like {@link #greet(String)}, but a failed flow throws its {@code ActionException} instead of returning the
+     * failure message, so that listeners route the record to their retry and dead letter topics.
+     */
+    String greetOrThrow(String name);
 }
@@ -1,27 +1,51 @@
 package com.dil.service.impl;
 
 import com.dil.action.GreeterAction;
+import com.dil.logicengine.FlowPlan;
 import com.dil.logicengine.LogicEngine;
-import com.dil.logicengine.api.LogicAction;
-import com.dil.logicengine.api.SimpleResponseBuilder;
+import com.dil.logicengine.api.ActionException;
+import com.dil.logicengine.api.FlowDefinition;
+import com.dil.logicengine.api.FlowResults;
+import com.dil.logicengine.api.IndexedResponseBuilder;
+import com.dil.logicengine.api.ResultKey;
 import com.dil.service.GreeterService;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Map;
-
 @Service
-@RequiredArgsConstructor
 public class DefaultGreeterService implements GreeterService {
 
     private final LogicEngine logicEngine;
+    private final FlowPlan<String> greetingFlow;
+    private final ResultKey<String> greeting;
+
+    public DefaultGreeterService(LogicEngine logicEngine, GreeterAction greeterAction) {
+        FlowDefinition<String> definition = FlowDefinition.<String>named("greeting")
+                .then(greeterAction)
+                .build();
+        this.logicEngine = logicEngine;
+        this.greetingFlow = logicEngine.compile(definition);
+        this.greeting = definition.key(GreeterAction.class);
+    }
 
     @Override
     public String greet(String input) {
-        List<LogicAction<String, ?>> actions = List.of(new GreeterAction());
-        Map<String, Object> response = logicEngine.executeActions(input, actions, new SimpleResponseBuilder<>());
-        return (String) response.values().iterator().next();
+        FlowResults response = run(input);
+        return response.failed() ? response.failure().getMessage() : response.get(greeting);
+    }
+
+    @Override
+    public String greetOrThrow(String input) {
+        FlowResults response = run(input);
+        if (response.failed()) {
+            throw response.failure() instanceof RuntimeException failure
+                    ? failure
+                    : new ActionException(response.failedAction(), response.failure().getMessage(), response.failure(), false);
+        }
+        return response.get(greeting);
+    }
+
+    private FlowResults run(String input) {
+        return logicEngine.executeActions(input, greetingFlow, new IndexedResponseBuilder<>(greetingFlow.size()));
     }
 
 }
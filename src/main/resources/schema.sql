@@ -0,0 +1,31 @@
+CREATE SEQUENCE IF NOT EXISTS greeting_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS greeting (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(255),
+    message VARCHAR(255)
+);
+
+CREATE SEQUENCE IF NOT EXISTS outbox_message_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_message (
+    id BIGINT PRIMARY KEY,
+    message_id VARCHAR(64) NOT NULL,
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255),
+    payload VARBINARY(1048576),
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    sent_at TIMESTAMP WITH TIME ZONE,
+    last_error VARCHAR(1024)
+);
+CREATE INDEX IF NOT EXISTS idx_outbox_status_id ON outbox_message (status, id);
+
+CREATE TABLE IF NOT EXISTS inbox_message (
+    message_id VARCHAR(64) NOT NULL,
+    action_type VARCHAR(255) NOT NULL,
+    received_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (message_id, action_type)
+);
@@ -0,0 +1,42 @@
+package com.dil.logicengine;
+
+import com.dil.action.GreeterAction;
+import com.dil.action.SaveGreetingAction;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.api.SimpleResponseBuilder;
+import com.dil.logicengine.outbox.OutboxMessageRepository;
+import com.dil.repository.GreetingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "logicengine.outbox.relay-enabled=false")
+class BulkExecutionTest {
+
+    @Autowired
+    private LogicEngine logicEngine;
+    @Autowired
+    private GreetingRepository greetingRepository;
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+
+    @Test
+    void bulkStepSavesAllRequestsInOneCall() {
+        greetingRepository.deleteAll();
+        outboxRepository.deleteAll();
+        List<LogicAction<String, ?>> actions = List.of(new GreeterAction(), new SaveGreetingAction(greetingRepository));
+
+        List<Map<String, Object>> responses = logicEngine.executeBulk(
+                List.of("ada", "alan", "grace"), actions, SimpleResponseBuilder::new);
+
+        assertEquals(3, responses.size());
+        assertEquals("Hello from the Greeter Action : alan", responses.get(1).get("GreeterAction"));
+        assertEquals(3, greetingRepository.count());
+        assertEquals(3, outboxRepository.count());
+    }
+}
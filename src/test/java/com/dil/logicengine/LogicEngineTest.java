@@ -0,0 +1,301 @@
+package com.dil.logicengine;
+
+import com.dil.logicengine.api.ActionResults;
+import com.dil.logicengine.api.AsyncLogicAction;
+import com.dil.logicengine.api.CompensatableAction;
+import com.dil.logicengine.api.DependentAction;
+import com.dil.logicengine.api.FlowDefinition;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.api.SimpleResponseBuilder;
+import com.dil.logicengine.config.LoggingProperties;
+import com.dil.logicengine.config.TracingProperties;
+import com.dil.logicengine.enhancer.ActionEnhancer;
+import com.dil.logicengine.enhancer.ActionPipelineCompiler;
+import com.dil.logicengine.enhancer.EnhancerRegistry;
+import com.dil.logicengine.enhancer.LoggingEnhancer;
+import com.dil.logicengine.enhancer.TracingEnhancer;
+import com.dil.logicengine.journal.FlowJournal;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogicEngineTest {
+
+    private final TracingProperties tracing = new TracingProperties();
+    private final LogicEngine engine = new LogicEngine(new ActionPipelineCompiler(
+            new EnhancerRegistry(List.of(
+                    new TracingEnhancer(tracing), new LoggingEnhancer(new LoggingProperties())))), tracing, List.of(), FlowJournal.NOOP);
+
+    private static final List<String> compensated = new CopyOnWriteArrayList<>();
+
+    @Test
+    void parallelModeRunsIndependentBranchesConcurrently() {
+        // Both roots must be inside execute() at the same time for the barrier to trip
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        List<LogicAction<String, ?>> actions = List.of(new Left(barrier), new Right(barrier), new Join());
+
+        Map<String, Object> response = engine.executeActionsParallel("x", actions, new SimpleResponseBuilder<>());
+
+        assertEquals("left-x+right-x", response.get("Join"));
+    }
+
+    @Test
+    void parallelModeCompensatesCompletedActionsOnFailure() {
+        compensated.clear();
+        List<LogicAction<String, ?>> actions = List.of(new Reserve(), new Failing());
+
+        Map<String, Object> response = engine.executeActionsParallel("x", actions, new SimpleResponseBuilder<>());
+
+        assertEquals(List.of("Reserve"), compensated);
+        assertTrue(response.containsKey("Failing_error"));
+    }
+
+    @Test
+    void parallelModeRejectsCycles() {
+        List<LogicAction<String, ?>> actions = List.of(new CycleA(), new CycleB());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.executeActionsParallel("x", actions, new SimpleResponseBuilder<>()));
+    }
+
+    @Test
+    void asyncModeMixesSyncAndAsyncActionsWithoutBlocking() {
+        CompletableFuture<String> downstream = new CompletableFuture<>();
+        List<LogicAction<String, ?>> actions = List.of(new Reserve(), new Remote(downstream), new Echo());
+
+        CompletableFuture<Map<String, Object>> response =
+                engine.executeActionsAsync("x", actions, new SimpleResponseBuilder<>());
+
+        assertFalse(response.isDone());
+        downstream.complete("remote-x");
+
+        Map<String, Object> results = response.join();
+        assertEquals("remote-x", results.get("Remote"));
+        assertEquals("x", results.get("Echo"));
+    }
+
+    @Test
+    void asyncModeCompensatesWhenAnAsyncActionFails() {
+        compensated.clear();
+        CompletableFuture<String> downstream = new CompletableFuture<>();
+        List<LogicAction<String, ?>> actions = List.of(new Reserve(), new Remote(downstream), new Echo());
+
+        CompletableFuture<Map<String, Object>> response =
+                engine.executeActionsAsync("x", actions, new SimpleResponseBuilder<>());
+        CompletableFuture.runAsync(() -> downstream.completeExceptionally(new IllegalStateException("timeout")));
+
+        Map<String, Object> results = response.join();
+        assertEquals(List.of("Reserve"), compensated);
+        assertTrue(results.containsKey("Remote_error"));
+        assertFalse(results.containsKey("Echo"));
+    }
+
+    @Test
+    void compiledPlansRunRepeatedlyAndPickUpNewEnhancers() {
+        EnhancerRegistry registry = new EnhancerRegistry(List.of());
+        LogicEngine planEngine = new LogicEngine(new ActionPipelineCompiler(registry), tracing, List.of(), FlowJournal.NOOP);
+        FlowPlan<String> plan = planEngine.compile(FlowDefinition.<String>named("echo").then(new Echo()).build());
+
+        assertEquals("x", planEngine.executeActions("x", plan, new SimpleResponseBuilder<>()).get("Echo"));
+        assertEquals("y", planEngine.executeActionsAsync("y", plan, new SimpleResponseBuilder<>()).join().get("Echo"));
+
+        ActionEnhancer prefixing = metadata -> (action, input, next) -> "enhanced-" + next.execute(action, input);
+        registry.register(prefixing);
+        assertEquals("enhanced-x", planEngine.executeActions("x", plan, new SimpleResponseBuilder<>()).get("Echo"));
+    }
+
+    @Test
+    void flowDefinitionsRejectRepeatedActions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> FlowDefinition.<String>named("twice").then(new Echo()).then(new Echo()).build());
+    }
+
+    @Test
+    void forEachFailsAndCompensatesEachRequestOnItsOwn() {
+        compensated.clear();
+        List<String> requests = List.of("a", "fail", "b", "c");
+        List<LogicAction<String, ?>> actions = List.of(new Reserve(), new FailOn("fail"), new Echo());
+
+        List<Map<String, Object>> responses = engine.executeForEach(requests, actions, SimpleResponseBuilder::new, 2);
+
+        assertEquals(4, responses.size());
+        assertEquals("a", responses.get(0).get("Echo"));
+        assertTrue(responses.get(1).containsKey("FailOn_error"));
+        assertEquals("c", responses.get(3).get("Echo"));
+        assertEquals(List.of("Reserve"), compensated);
+    }
+
+    @Test
+    void forEachKeepsToTheParallelismLimit() {
+        Concurrency concurrency = new Concurrency();
+        List<String> requests = Collections.nCopies(64, "x");
+
+        engine.executeForEach(requests, List.of(concurrency), SimpleResponseBuilder::new, 4);
+
+        assertTrue(concurrency.max.get() <= 4, "at most 4 requests in flight, saw " + concurrency.max.get());
+        assertTrue(concurrency.max.get() > 1, "requests did not run in parallel");
+    }
+
+    static class FailOn implements LogicAction<String, String> {
+        private final String failing;
+
+        FailOn(String failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        public String execute(String input) {
+            if (input.equals(failing)) {
+                throw new IllegalStateException("failed " + input);
+            }
+            return input;
+        }
+    }
+
+    static class Concurrency implements LogicAction<String, String> {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+
+        @Override
+        public String execute(String input) {
+            max.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return input;
+        }
+    }
+
+    static class Remote implements AsyncLogicAction<String, String> {
+        private final CompletableFuture<String> downstream;
+
+        Remote(CompletableFuture<String> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public CompletionStage<String> executeAsync(String input) {
+            return downstream;
+        }
+    }
+
+    static class Echo implements LogicAction<String, String> {
+        @Override
+        public String execute(String input) {
+            return input;
+        }
+    }
+
+    static class Left implements LogicAction<String, String> {
+        private final CyclicBarrier barrier;
+
+        Left(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public String execute(String input) {
+            await(barrier);
+            return "left-" + input;
+        }
+    }
+
+    static class Right implements LogicAction<String, String> {
+        private final CyclicBarrier barrier;
+
+        Right(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public String execute(String input) {
+            await(barrier);
+            return "right-" + input;
+        }
+    }
+
+    static class Join implements DependentAction<String, String> {
+        @Override
+        public List<Class<? extends LogicAction<String, ?>>> dependsOn() {
+            return List.of(Left.class, Right.class);
+        }
+
+        @Override
+        public String execute(String input, ActionResults results) {
+            return results.get(Left.class) + "+" + results.get(Right.class);
+        }
+    }
+
+    static class Reserve implements CompensatableAction<String, String> {
+        @Override
+        public String execute(String input) {
+            return "reserved";
+        }
+
+        @Override
+        public void compensate(String request, String result) {
+            compensated.add("Reserve");
+        }
+    }
+
+    static class Failing implements DependentAction<String, String> {
+        @Override
+        public List<Class<? extends LogicAction<String, ?>>> dependsOn() {
+            return List.of(Reserve.class);
+        }
+
+        @Override
+        public String execute(String input, ActionResults results) {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    static class CycleA implements DependentAction<String, String> {
+        @Override
+        public List<Class<? extends LogicAction<String, ?>>> dependsOn() {
+            return List.of(CycleB.class);
+        }
+
+        @Override
+        public String execute(String input, ActionResults results) {
+            return input;
+        }
+    }
+
+    static class CycleB implements DependentAction<String, String> {
+        @Override
+        public List<Class<? extends LogicAction<String, ?>>> dependsOn() {
+            return List.of(CycleA.class);
+        }
+
+        @Override
+        public String execute(String input, ActionResults results) {
+            return input;
+        }
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Branches did not run concurrently", e);
+        }
+    }
+}
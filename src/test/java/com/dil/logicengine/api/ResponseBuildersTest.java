@@ -0,0 +1,99 @@
+package com.dil.logicengine.api;
+
+import com.dil.logicengine.LogicEngine;
+import com.dil.logicengine.config.TracingProperties;
+import com.dil.logicengine.enhancer.ActionPipelineCompiler;
+import com.dil.logicengine.enhancer.EnhancerRegistry;
+import com.dil.logicengine.journal.FlowJournal;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseBuildersTest {
+
+    private final LogicEngine engine = new LogicEngine(
+            new ActionPipelineCompiler(new EnhancerRegistry(List.of())),
+            new TracingProperties(),
+            List.of(), FlowJournal.NOOP);
+
+    @Test
+    void indexedBuilderStoresResultsBySlot() {
+        List<LogicAction<String, ?>> actions = List.of(new Length(), new Upper());
+        ResultKey<Integer> length = ResultKey.in(actions, Length.class);
+        ResultKey<String> upper = ResultKey.in(actions, Upper.class);
+
+        FlowResults results = engine.executeActions("abc", actions, new IndexedResponseBuilder<>(actions.size()));
+
+        assertFalse(results.failed());
+        assertEquals(3, results.get(length));
+        assertEquals("ABC", results.get(upper));
+    }
+
+    @Test
+    void indexedBuilderReportsTheFailedSlot() {
+        List<LogicAction<String, ?>> actions = List.of(new Length(), new Failing(), new Upper());
+        ResultKey<String> failing = ResultKey.in(actions, Failing.class);
+
+        FlowResults results = engine.executeActionsAsync("abc", actions, new IndexedResponseBuilder<>(actions.size())).join();
+
+        assertTrue(results.failed());
+        assertEquals(Failing.class, results.failedAction());
+        assertEquals("boom", results.error(failing).getMessage());
+        assertNull(results.get(ResultKey.in(actions, Upper.class)));
+    }
+
+    @Test
+    void indexedBuilderPlacesClassKeyedResultsInTheirActionsSlots() {
+        List<LogicAction<String, ?>> actions = List.of(new Length(), new Upper(), new Failing());
+        IndexedResponseBuilder<String> builder = new IndexedResponseBuilder<>(actions);
+
+        builder.addResult(Upper.class, "ABC");
+        builder.addResult(Length.class, 3);
+        builder.handleException(Failing.class, new IllegalStateException("boom"));
+        FlowResults results = builder.build("abc");
+
+        assertEquals(3, results.get(ResultKey.in(actions, Length.class)));
+        assertEquals("ABC", results.get(ResultKey.in(actions, Upper.class)));
+        assertEquals("boom", results.error(ResultKey.in(actions, Failing.class)).getMessage());
+    }
+
+    @Test
+    void streamingBuilderWritesTheSimpleLayout() throws IOException {
+        StringWriter json = new StringWriter();
+        JsonGenerator generator = new ObjectMapper().createGenerator(json);
+
+        engine.executeActions("abc", List.of(new Length(), new Failing()), new JsonStreamingResponseBuilder<>(generator));
+
+        assertEquals("{\"Length\":3,\"Failing_error\":\"boom\"}", json.toString());
+    }
+
+    static class Length implements LogicAction<String, Integer> {
+        @Override
+        public Integer execute(String input) {
+            return input.length();
+        }
+    }
+
+    static class Upper implements LogicAction<String, String> {
+        @Override
+        public String execute(String input) {
+            return input.toUpperCase();
+        }
+    }
+
+    static class Failing implements LogicAction<String, String> {
+        @Override
+        public String execute(String input) {
+            throw new IllegalStateException("boom");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.dil.logicengine.deadletter;
+
+import com.dil.logicengine.api.ActionException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadLetterPublisherTest {
+
+    private final DeadLetterPublisher publisher = new DeadLetterPublisher(
+            new DefaultKafkaProducerFactory<>(Map.of()), new SimpleMeterRegistry());
+    private final RetryTopics topics = new RetryTopics("orders",
+            List.of(new RetryTopics.RetryTopic("orders-retry-0", 1_000), new RetryTopics.RetryTopic("orders-retry-1", 5_000)),
+            "orders-dlt");
+
+    @Test
+    void failuresWalkTheRetryTopicsAndEndInTheDeadLetterTopic() {
+        ConsumerRecord<String, byte[]> original = new ConsumerRecord<>("orders", 3, 42L, "key", "value".getBytes());
+        ActionException failure = new ActionException(String.class, "down", new IllegalStateException("down"), true);
+
+        ProducerRecord<String, byte[]> first = publisher.route(original, failure, true, topics);
+        assertEquals("orders-retry-0", first.topic());
+        assertEquals("1", header(first, DeadLetterPublisher.ATTEMPT_HEADER));
+        assertTrue(Long.parseLong(header(first, DeadLetterPublisher.DUE_HEADER)) > System.currentTimeMillis());
+        assertEquals("java.lang.IllegalStateException", header(first, DeadLetterPublisher.EXCEPTION_HEADER));
+        assertEquals("java.lang.String", header(first, DeadLetterPublisher.FAILED_ACTION_HEADER));
+
+        ProducerRecord<String, byte[]> second = publisher.route(consumed(first, 7L), failure, true, topics);
+        assertEquals("orders-retry-1", second.topic());
+        assertEquals("2", header(second, DeadLetterPublisher.ATTEMPT_HEADER));
+
+        ProducerRecord<String, byte[]> dead = publisher.route(consumed(second, 9L), failure, true, topics);
+        assertEquals("orders-dlt", dead.topic());
+        assertNull(dead.headers().lastHeader(DeadLetterPublisher.DUE_HEADER));
+        // Where the record was first consumed survives every hop
+        assertEquals("orders", header(dead, DeadLetterPublisher.ORIGINAL_TOPIC_HEADER));
+        assertEquals("3", header(dead, DeadLetterPublisher.ORIGINAL_PARTITION_HEADER));
+        assertEquals("42", header(dead, DeadLetterPublisher.ORIGINAL_OFFSET_HEADER));
+        assertEquals("key", dead.key());
+    }
+
+    @Test
+    void nonRetryableFailuresSkipStraightToTheDeadLetterTopic() {
+        ActionException failure = new ActionException(String.class, "invalid", false);
+        ConsumerRecord<String, byte[]> original = new ConsumerRecord<>("orders", 0, 1L, "key", "value".getBytes());
+
+        assertFalse(DeadLetterPublisher.isRetryable(new IllegalStateException(failure)));
+        assertTrue(DeadLetterPublisher.isRetryable(new IllegalStateException("io")));
+        assertEquals("orders-dlt", publisher.route(original, failure, false, topics).topic());
+        assertNull(publisher.route(original, failure, false,
+                new RetryTopics("orders", topics.retries(), null)));
+    }
+
+    @Test
+    void failedSendsFailTheListenerInsteadOfLosingTheRecord() {
+        MockProducer<String, byte[]> producer = new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer());
+        DeadLetterPublisher failing = new DeadLetterPublisher(
+                new KafkaTemplate<>(new MockProducerFactory<>(() -> producer)), new SimpleMeterRegistry());
+        ConsumerRecord<String, byte[]> original = new ConsumerRecord<>("orders", 0, 1L, "key", "value".getBytes());
+        CompletableFuture<Void> broker = CompletableFuture.runAsync(() -> {
+            while (!producer.errorNext(new TimeoutException("broker down"))) {
+                Thread.onSpinWait();
+            }
+        });
+
+        assertThrows(KafkaException.class,
+                () -> failing.forward(original, new IllegalStateException("down"), true, topics));
+        broker.join();
+    }
+
+    private static ConsumerRecord<String, byte[]> consumed(ProducerRecord<String, byte[]> sent, long offset) {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(sent.topic(), 0, offset, sent.key(), sent.value());
+        for (Header header : sent.headers()) {
+            record.headers().add(header);
+        }
+        return record;
+    }
+
+    private static String header(ProducerRecord<String, byte[]> record, String key) {
+        return new String(record.headers().lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,71 @@
+package com.dil.logicengine.enhancer;
+
+import com.dil.logicengine.api.LogicAction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ActionPipelineCompilerTest {
+
+    @Test
+    void compilesOncePerClassAndAppliesEnhancersInOrder() {
+        List<String> calls = new ArrayList<>();
+        EnhancerRegistry registry = new EnhancerRegistry(List.of(
+                new Recording("inner", 2, calls), new Recording("outer", 1, calls)));
+        ActionPipelineCompiler compiler = new ActionPipelineCompiler(registry);
+
+        ActionPipeline pipeline = compiler.pipelineFor(Echo.class);
+        Object result = pipeline.execute(cast(new Echo()), "x");
+
+        assertSame(pipeline, compiler.pipelineFor(Echo.class));
+        assertEquals("x", result);
+        assertEquals(List.of("outer:Echo", "inner:Echo"), calls);
+    }
+
+    @Test
+    void registeringAnEnhancerRecompilesPipelines() {
+        List<String> calls = new ArrayList<>();
+        EnhancerRegistry registry = new EnhancerRegistry(List.of());
+        ActionPipelineCompiler compiler = new ActionPipelineCompiler(registry);
+        ActionPipeline before = compiler.pipelineFor(Echo.class);
+
+        registry.register(new Recording("late", 0, calls));
+        compiler.pipelineFor(Echo.class).execute(cast(new Echo()), "x");
+
+        assertNotSame(before, compiler.pipelineFor(Echo.class));
+        assertEquals(List.of("late:Echo"), calls);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LogicAction<Object, Object> cast(LogicAction<?, ?> action) {
+        return (LogicAction<Object, Object>) action;
+    }
+
+    static class Echo implements LogicAction<String, String> {
+        @Override
+        public String execute(String input) {
+            return input;
+        }
+    }
+
+    record Recording(String label, int order, List<String> calls) implements ActionEnhancer {
+        @Override
+        public int getOrder() {
+            return order;
+        }
+
+        @Override
+        public ActionInterceptor compile(ActionMetadata metadata) {
+            String entry = label + ":" + metadata.getName();
+            return (action, input, next) -> {
+                calls.add(entry);
+                return next.execute(action, input);
+            };
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.dil.logicengine.enhancer;
+
+import com.dil.logicengine.annotations.CacheableAction;
+import com.dil.logicengine.api.LogicAction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingEnhancerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final EnhancerRegistry enhancers = new EnhancerRegistry(List.of(new CachingEnhancer(registry)));
+    private final ActionPipelineCompiler compiler = new ActionPipelineCompiler(enhancers);
+
+    @Test
+    void reusesResultsAndEvictsLeastRecentlyUsed() {
+        Upper action = new Upper();
+        ActionPipeline pipeline = compiler.pipelineFor(Upper.class);
+
+        assertEquals("A", pipeline.execute(cast(action), "a"));
+        assertEquals("A", pipeline.execute(cast(action), "a"));
+        pipeline.execute(cast(action), "b");
+        pipeline.execute(cast(action), "c");
+        pipeline.execute(cast(action), "a");
+
+        assertEquals(4, action.executions.get());
+        assertEquals(1.0, counter("logicengine.action.cache.gets", "hit"));
+        assertEquals(4.0, counter("logicengine.action.cache.gets", "miss"));
+        assertEquals(2.0, registry.get("logicengine.action.cache.evictions").counter().count());
+    }
+
+    @Test
+    void recompiledPipelinesKeepTheCacheAndItsGauge() {
+        Upper action = new Upper();
+        compiler.pipelineFor(Upper.class).execute(cast(action), "a");
+
+        // Any registry change drops the compiled pipelines
+        enhancers.register(metadata -> (target, input, next) -> next.execute(target, input));
+        assertEquals("A", compiler.pipelineFor(Upper.class).execute(cast(action), "a"));
+        compiler.pipelineFor(Upper.class).execute(cast(action), "b");
+
+        assertEquals(2, action.executions.get());
+        assertEquals(2.0, registry.get("logicengine.action.cache.size").tag("action", "Upper").gauge().value());
+    }
+
+    @Test
+    void stripedCachesHoldUpToMaxSizeInTotal() {
+        AtomicInteger evictions = new AtomicInteger();
+        ActionResultCache cache = new ActionResultCache(100, Long.MAX_VALUE, evictions::incrementAndGet);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+
+        assertTrue(cache.size() <= 100);
+        assertEquals(1000 - cache.size(), evictions.get());
+        assertEquals(999, cache.get(999));
+    }
+
+    private double counter(String name, String result) {
+        return registry.get(name).tag("action", "Upper").tag("result", result).counter().count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LogicAction<Object, Object> cast(LogicAction<?, ?> action) {
+        return (LogicAction<Object, Object>) action;
+    }
+
+    @CacheableAction(maxSize = 2)
+    static class Upper implements LogicAction<String, String> {
+        final AtomicInteger executions = new AtomicInteger();
+
+        @Override
+        public String execute(String input) {
+            executions.incrementAndGet();
+            return input.toUpperCase();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.dil.logicengine.enhancer;
+
+import com.dil.logicengine.annotations.ActionLogging;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.config.LoggingProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.logging.LogLevel;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoggingEnhancerTest {
+
+    @Test
+    void propertyOverridesAnnotationAndOffLeavesTheEnhancerOut() {
+        LoggingProperties properties = new LoggingProperties();
+        LoggingEnhancer enhancer = new LoggingEnhancer(properties);
+
+        assertTrue(enhancer.supports(ActionMetadata.of(Plain.class)));
+        assertFalse(enhancer.supports(ActionMetadata.of(Quiet.class)));
+
+        properties.getActions().put("Quiet", LogLevel.DEBUG);
+        properties.getActions().put("Plain", LogLevel.OFF);
+        assertTrue(enhancer.supports(ActionMetadata.of(Quiet.class)));
+        assertFalse(enhancer.supports(ActionMetadata.of(Plain.class)));
+    }
+
+    static class Plain implements LogicAction<String, String> {
+        @Override
+        public String execute(String input) {
+            return input;
+        }
+    }
+
+    @ActionLogging(LogLevel.OFF)
+    static class Quiet implements LogicAction<String, String> {
+        @Override
+        public String execute(String input) {
+            return input;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.dil.logicengine.enhancer;
+
+import com.dil.logicengine.annotations.LogicEngineListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogicEngineListenerCollectorTest {
+
+    @Test
+    void collectsAnnotatedMethodsOfInitializedBeans() throws NoSuchMethodException {
+        LogicEngineListenerCollector collector = new LogicEngineListenerCollector();
+        Listening listening = new Listening();
+
+        collector.postProcessAfterInitialization(listening, "listening");
+        collector.postProcessAfterInitialization(new Object(), "plain");
+        collector.postProcessAfterInitialization("a string", "string");
+
+        List<LogicEngineListenerCollector.ListenerEndpoint> endpoints = collector.getEndpoints();
+        assertEquals(1, endpoints.size());
+        assertSame(listening, endpoints.getFirst().bean());
+        assertEquals(Listening.class.getDeclaredMethod("onGreeting", String.class), endpoints.getFirst().method());
+        assertEquals("greetings", endpoints.getFirst().annotation().topic());
+    }
+
+    @Test
+    void beansWithoutListenersAreNotCollected() {
+        LogicEngineListenerCollector collector = new LogicEngineListenerCollector();
+
+        collector.postProcessAfterInitialization(new Quiet(), "quiet");
+        collector.postProcessAfterInitialization(new Quiet(), "quiet2");
+
+        assertTrue(collector.getEndpoints().isEmpty());
+    }
+
+    static class Listening {
+        @LogicEngineListener(topic = "greetings", groupId = "test", payloadType = String.class)
+        public void onGreeting(String greeting) {
+        }
+
+        public void notAListener(String value) {
+        }
+    }
+
+    static class Quiet {
+        public void handle(String value) {
+        }
+    }
+}
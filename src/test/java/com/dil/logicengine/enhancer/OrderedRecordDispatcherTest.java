@@ -0,0 +1,111 @@
+package com.dil.logicengine.enhancer;
+
+import com.dil.logicengine.annotations.ProcessingMode;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderedRecordDispatcherTest {
+
+    @Test
+    void keepsOrderPerKeyAndAcknowledgesEveryRecord() throws Exception {
+        Map<String, List<Long>> seen = new ConcurrentHashMap<>();
+        CountDownLatch acked = new CountDownLatch(200);
+        OrderedRecordDispatcher<String, String> dispatcher = new OrderedRecordDispatcher<>(
+                ProcessingMode.KEY_ORDERED, 16,
+                record -> seen.computeIfAbsent(record.key(), k -> new CopyOnWriteArrayList<>()).add(record.offset()));
+
+        for (long offset = 0; offset < 200; offset++) {
+            String key = "key-" + (offset % 4);
+            dispatcher.dispatch(new ConsumerRecord<>("greeting.events", 0, offset, key, "v"), acked::countDown);
+        }
+
+        assertTrue(acked.await(5, TimeUnit.SECONDS));
+        assertEquals(4, seen.size());
+        seen.values().forEach(offsets -> {
+            assertEquals(50, offsets.size());
+            for (int i = 1; i < offsets.size(); i++) {
+                assertTrue(offsets.get(i - 1) < offsets.get(i));
+            }
+        });
+    }
+
+    @Test
+    void failedRecordsAreAcknowledgedWithoutStoppingTheirLane() throws Exception {
+        List<Long> acked = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        OrderedRecordDispatcher<String, String> dispatcher = new OrderedRecordDispatcher<>(
+                ProcessingMode.PARTITION_ORDERED, 4,
+                record -> {
+                    if (record.offset() == 0) {
+                        throw new AssertionError("handler failed");
+                    }
+                });
+
+        for (long offset = 0; offset < 3; offset++) {
+            long acknowledged = offset;
+            dispatcher.dispatch(new ConsumerRecord<>("greeting.events", 0, offset, "key", "v"), () -> {
+                acked.add(acknowledged);
+                done.countDown();
+            });
+        }
+
+        // Async acks pause the consumer until every record of a poll is acknowledged, failed ones included
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0L, 1L, 2L), acked);
+        assertEquals(0, dispatcher.inFlight());
+    }
+
+    @Test
+    void saturatedDispatchersPauseInsteadOfBlockingTheContainerThread() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch acked = new CountDownLatch(2);
+        AtomicInteger pauses = new AtomicInteger();
+        CountDownLatch resumed = new CountDownLatch(1);
+        OrderedRecordDispatcher<String, String> dispatcher = new OrderedRecordDispatcher<>(
+                ProcessingMode.PARTITION_ORDERED, 1, Duration.ofMillis(20), pauses::incrementAndGet, resumed::countDown,
+                record -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+
+        dispatcher.dispatch(new ConsumerRecord<>("greeting.events", 0, 0L, "key", "v"), acked::countDown);
+        dispatcher.dispatch(new ConsumerRecord<>("greeting.events", 0, 1L, "key", "v"), acked::countDown);
+        assertEquals(1, pauses.get());
+
+        release.countDown();
+        assertTrue(acked.await(5, TimeUnit.SECONDS));
+        assertTrue(resumed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void interruptedDispatchesStillHandleAndAcknowledgeTheRecord() throws Exception {
+        AtomicInteger handled = new AtomicInteger();
+        CountDownLatch acked = new CountDownLatch(1);
+        OrderedRecordDispatcher<String, String> dispatcher = new OrderedRecordDispatcher<>(
+                ProcessingMode.PARTITION_ORDERED, 1, record -> handled.incrementAndGet());
+
+        Thread.currentThread().interrupt();
+        try {
+            dispatcher.dispatch(new ConsumerRecord<>("greeting.events", 0, 0L, "key", "v"), acked::countDown);
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+        assertTrue(acked.await(5, TimeUnit.SECONDS));
+        assertEquals(1, handled.get());
+    }
+}
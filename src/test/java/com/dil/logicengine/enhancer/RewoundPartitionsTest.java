@@ -0,0 +1,50 @@
+package com.dil.logicengine.enhancer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RewoundPartitionsTest {
+
+    private static final TopicPartition P0 = new TopicPartition("orders-retry-0", 0);
+    private static final TopicPartition P1 = new TopicPartition("orders-retry-0", 1);
+
+    @Test
+    void skipsTheRestOfARewoundPollUntilTheRecordComesBack() {
+        RewoundPartitions rewound = new RewoundPartitions();
+        rewound.rewind(P0, 5);
+
+        assertTrue(rewound.skip(record(P0, 6), P0));
+        assertFalse(rewound.skip(record(P1, 6), P1));
+        assertFalse(rewound.skip(record(P0, 5), P0));
+        assertFalse(rewound.skip(record(P0, 6), P0));
+    }
+
+    @Test
+    void forgetsRevokedAndReassignedPartitions() {
+        RewoundPartitions rewound = new RewoundPartitions();
+        rewound.rewind(P0, 5);
+        rewound.rewind(P1, 9);
+
+        rewound.onPartitionsRevokedBeforeCommit(null, List.of(P0));
+        // Reassigned from the committed offset, which is not the one it was rewound to
+        assertFalse(rewound.skip(record(P0, 3), P0));
+        assertTrue(rewound.skip(record(P1, 10), P1));
+
+        rewound.onPartitionsAssigned(null, List.of(P1));
+        assertFalse(rewound.skip(record(P1, 10), P1));
+
+        rewound.rewind(P1, 12);
+        rewound.onPartitionsLost(null, List.of(P1));
+        assertFalse(rewound.skip(record(P1, 13), P1));
+    }
+
+    private static ConsumerRecord<String, byte[]> record(TopicPartition partition, long offset) {
+        return new ConsumerRecord<>(partition.topic(), partition.partition(), offset, "key", new byte[0]);
+    }
+}
@@ -0,0 +1,34 @@
+package com.dil.logicengine.enhancer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnforwardedRecordsTest {
+
+    @Test
+    void redeliveredRecordsOnlyOweTheirForwardOnce() {
+        UnforwardedRecords unforwarded = new UnforwardedRecords();
+        IllegalStateException failure = new IllegalStateException("down");
+        unforwarded.failed(record(4), failure, true);
+        unforwarded.handled(record(5));
+
+        // Redelivery hands out a fresh record instance for the same offset
+        UnforwardedRecords.Outcome owed = unforwarded.take(record(4));
+        assertSame(failure, owed.failure());
+        assertTrue(owed.retryable());
+        assertFalse(owed.isHandled());
+        assertTrue(unforwarded.take(record(5)).isHandled());
+
+        assertNull(unforwarded.take(record(4)));
+        assertNull(unforwarded.take(record(6)));
+    }
+
+    private static ConsumerRecord<String, byte[]> record(long offset) {
+        return new ConsumerRecord<>("orders", 0, offset, "key", new byte[0]);
+    }
+}
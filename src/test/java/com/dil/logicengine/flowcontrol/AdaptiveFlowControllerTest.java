@@ -0,0 +1,125 @@
+package com.dil.logicengine.flowcontrol;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveFlowControllerTest {
+
+    private final FlowControlProperties properties = new FlowControlProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void pausesAtTheLimitAndResumesWithHysteresis() {
+        properties.setInitialLimit(10);
+        AdaptiveFlowController controller = new AdaptiveFlowController(properties, registry);
+        PausableContainer container = new PausableContainer();
+        controller.register(container);
+
+        controller.acquire(9);
+        assertFalse(container.paused);
+        controller.acquire(1);
+        assertTrue(container.paused);
+
+        // 9 in flight is above 80% of the limit
+        controller.release(1, 0);
+        assertTrue(container.paused);
+        controller.release(1, 0);
+        assertFalse(container.paused);
+        assertEquals(1, registry.get("logicengine.flowcontrol.pauses").counter().count());
+    }
+
+    @Test
+    void containersPausedBySaturationStayPausedWhenTheLimitResumes() {
+        properties.setInitialLimit(10);
+        AdaptiveFlowController controller = new AdaptiveFlowController(properties, registry);
+        PausableContainer saturated = new PausableContainer();
+        PausableContainer other = new PausableContainer();
+        controller.register(saturated);
+        controller.register(other);
+
+        controller.pauseSaturated(saturated);
+        controller.acquire(10);
+        assertTrue(other.paused);
+        controller.release(10, 0);
+        assertTrue(saturated.paused);
+        assertFalse(other.paused);
+
+        // Nor does the dispatcher resume a container the limit holds paused
+        controller.acquire(10);
+        controller.resumeSaturated(saturated);
+        assertTrue(saturated.paused);
+        controller.release(10, 0);
+        assertFalse(saturated.paused);
+    }
+
+    @Test
+    void limitGrowsAdditivelyAndShrinksMultiplicatively() {
+        properties.setInitialLimit(10);
+        properties.setLatencyThreshold(Duration.ofMillis(100));
+        AdaptiveFlowController controller = new AdaptiveFlowController(properties, registry);
+
+        controller.acquire(6);
+        controller.release(6, TimeUnit.MILLISECONDS.toNanos(6 * 10));
+        controller.adjust();
+        assertEquals(11, controller.getLimit());
+
+        controller.acquire(2);
+        controller.release(2, TimeUnit.MILLISECONDS.toNanos(2 * 500));
+        controller.adjust();
+        assertEquals(9, controller.getLimit());
+        assertEquals(9.0, registry.get("logicengine.flowcontrol.limit").gauge().value());
+
+        // Mostly idle: no growth
+        controller.acquire(1);
+        controller.release(1, 0);
+        controller.adjust();
+        assertEquals(9, controller.getLimit());
+    }
+
+    static class PausableContainer implements MessageListenerContainer {
+        boolean paused;
+
+        @Override
+        public void pause() {
+            paused = true;
+        }
+
+        @Override
+        public void resume() {
+            paused = false;
+        }
+
+        @Override
+        public void setupMessageListener(Object messageListener) {
+        }
+
+        @Override
+        public Map<String, Map<MetricName, ? extends Metric>> metrics() {
+            return Map.of();
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public boolean isRunning() {
+            return true;
+        }
+    }
+}
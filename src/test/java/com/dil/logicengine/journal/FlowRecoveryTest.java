@@ -0,0 +1,146 @@
+package com.dil.logicengine.journal;
+
+import com.dil.logicengine.LogicEngine;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.config.TracingProperties;
+import com.dil.logicengine.enhancer.ActionPipelineCompiler;
+import com.dil.logicengine.enhancer.EnhancerRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlowRecoveryTest {
+
+    private static final List<String> calls = new CopyOnWriteArrayList<>();
+    private static volatile boolean crash;
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void flowsWhoseRecoveryFailsAreRecoveredAgainOnTheNextStart() throws IOException {
+        MappedFlowJournal journal = new MappedFlowJournal(properties(), objectMapper);
+        long flowId = journal.flowStarted("x", List.of(new Echo(), new Prefixed("p")));
+        journal.actionCompleted(flowId, 0, new Echo(), "x");
+        journal.destroy();
+
+        // Prefixed has no no-arg constructor and is no bean yet, so resuming the flow fails
+        calls.clear();
+        MappedFlowJournal failed = recover(new GenericApplicationContext());
+        assertTrue(calls.isEmpty());
+        failed.destroy();
+        assertEquals(1, segmentFiles(), "the recovered segments are deleted");
+
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBean(Prefixed.class, () -> new Prefixed("p"));
+        MappedFlowJournal restarted = recover(context);
+        assertEquals(List.of("p x"), calls);
+        restarted.destroy();
+
+        assertTrue(new MappedFlowJournal(properties(), objectMapper).recoveredFlows().isEmpty());
+    }
+
+    @Test
+    void aCrashWhileResumingContinuesTheOriginalFlow() {
+        MappedFlowJournal journal = new MappedFlowJournal(properties(), objectMapper);
+        long flowId = journal.flowStarted("y", List.of(new Echo(), new Echo(), new Crash()));
+        journal.actionCompleted(flowId, 0, new Echo(), "y");
+        journal.destroy();
+
+        calls.clear();
+        crash = true;
+        MappedFlowJournal crashed = new MappedFlowJournal(properties(), objectMapper);
+        assertThrows(Error.class, () -> recovery(crashed, new GenericApplicationContext()).recover());
+        crashed.destroy();
+        assertEquals(List.of("echo y"), calls);
+
+        MappedFlowJournal restarted = new MappedFlowJournal(properties(), objectMapper);
+        RecoveredFlow flow = restarted.recoveredFlows().getFirst();
+        assertEquals(1, restarted.recoveredFlows().size());
+        assertEquals(flowId, flow.flowId());
+        assertEquals(2, flow.completed().size());
+        assertEquals(1, flow.completed().get(1).index());
+
+        // Only the action the crash interrupted is left
+        calls.clear();
+        crash = false;
+        recovery(restarted, new GenericApplicationContext()).recover();
+        assertEquals(List.of("crash y"), calls);
+        restarted.destroy();
+    }
+
+    private MappedFlowJournal recover(GenericApplicationContext context) {
+        MappedFlowJournal journal = new MappedFlowJournal(properties(), objectMapper);
+        recovery(journal, context).recover();
+        return journal;
+    }
+
+    private FlowRecovery recovery(MappedFlowJournal journal, GenericApplicationContext context) {
+        context.refresh();
+        return new FlowRecovery(journal, engine(journal), properties(), objectMapper, context);
+    }
+
+    private long segmentFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private JournalProperties properties() {
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setRecovery(JournalProperties.RecoveryMode.RESUME);
+        return properties;
+    }
+
+    private static LogicEngine engine(FlowJournal journal) {
+        return new LogicEngine(new ActionPipelineCompiler(new EnhancerRegistry(List.of())),
+                new TracingProperties(), List.of(), journal);
+    }
+
+    static class Echo implements LogicAction<String, String> {
+        @Override
+        public String execute(String input) {
+            calls.add("echo " + input);
+            return input;
+        }
+    }
+
+    static class Prefixed implements LogicAction<String, String> {
+        private final String prefix;
+
+        Prefixed(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public String execute(String input) {
+            calls.add(prefix + " " + input);
+            return prefix + input;
+        }
+    }
+
+    static class Crash implements LogicAction<String, String> {
+        @Override
+        public String execute(String input) {
+            if (crash) {
+                throw new Error("crash");
+            }
+            calls.add("crash " + input);
+            return input;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.dil.logicengine.journal;
+
+import com.dil.logicengine.LogicEngine;
+import com.dil.logicengine.api.CompensatableAction;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.api.SimpleResponseBuilder;
+import com.dil.logicengine.config.TracingProperties;
+import com.dil.logicengine.enhancer.ActionPipelineCompiler;
+import com.dil.logicengine.enhancer.EnhancerRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedFlowJournalTest {
+
+    private static final List<String> calls = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void unfinishedFlowsAreRecoveredWithTheirCompensatableResults() {
+        MappedFlowJournal journal = journal(JournalProperties.RecoveryMode.COMPENSATE);
+        long finished = journal.flowStarted("a", List.of(new Reserve(), new Echo()));
+        journal.flowFinished(finished);
+        // Crash after the first action of the second flow
+        long crashed = journal.flowStarted("b", List.of(new Reserve(), new Echo()));
+        journal.actionCompleted(crashed, 0, new Reserve(), "reserved-b");
+
+        MappedFlowJournal restarted = journal(JournalProperties.RecoveryMode.COMPENSATE);
+
+        List<RecoveredFlow> flows = restarted.recoveredFlows();
+        assertEquals(1, flows.size());
+        RecoveredFlow flow = flows.getFirst();
+        assertEquals(crashed, flow.flowId());
+        assertEquals("b", flow.request().asText());
+        assertEquals(List.of(Reserve.class.getName(), Echo.class.getName()), flow.actions());
+        assertEquals(1, flow.completed().size());
+        assertEquals("reserved-b", flow.completed().getFirst().result().asText());
+        journal.destroy();
+        restarted.destroy();
+    }
+
+    @Test
+    void flowsRunByTheEngineAreNotRecovered() {
+        MappedFlowJournal journal = journal(JournalProperties.RecoveryMode.COMPENSATE);
+        engine(journal).executeActions("x", List.of(new Reserve(), new Echo()), new SimpleResponseBuilder<>());
+        journal.destroy();
+
+        MappedFlowJournal restarted = journal(JournalProperties.RecoveryMode.COMPENSATE);
+        assertTrue(restarted.recoveredFlows().isEmpty());
+        restarted.destroy();
+    }
+
+    @Test
+    void recoveryCompensatesOrResumesUnfinishedFlows() {
+        MappedFlowJournal journal = journal(JournalProperties.RecoveryMode.COMPENSATE);
+        long flowId = journal.flowStarted("x", List.of(new Reserve(), new Echo()));
+        journal.actionCompleted(flowId, 0, new Reserve(), "reserved-x");
+        journal.destroy();
+
+        calls.clear();
+        recover(JournalProperties.RecoveryMode.COMPENSATE).destroy();
+        assertEquals(List.of("compensate reserved-x"), calls);
+
+        MappedFlowJournal crashed = journal(JournalProperties.RecoveryMode.RESUME);
+        long resumed = crashed.flowStarted("y", List.of(new Reserve(), new Echo()));
+        crashed.actionCompleted(resumed, 0, new Reserve(), "reserved-y");
+        crashed.destroy();
+
+        calls.clear();
+        MappedFlowJournal restarted = recover(JournalProperties.RecoveryMode.RESUME);
+        // The compensated flow is not handled twice; the resumed one only runs what was left
+        assertEquals(List.of("echo y"), calls);
+        assertTrue(restarted.recoveredFlows().isEmpty());
+        restarted.destroy();
+    }
+
+    @Test
+    void segmentsHoldingEntriesOfAnOpenFlowOutliveTheirOwnFlows() throws IOException {
+        JournalProperties properties = properties(JournalProperties.RecoveryMode.COMPENSATE);
+        properties.setSegmentSize(DataSize.ofBytes(512));
+        MappedFlowJournal journal = new MappedFlowJournal(properties, objectMapper);
+
+        // A long flow starts, short flows fill segments, and its completion lands in a later segment
+        long longFlow = journal.flowStarted("long", List.of(new Reserve(), new Echo()));
+        shortFlows(journal, 10);
+        journal.actionCompleted(longFlow, 0, new Reserve(), "reserved-long");
+        shortFlows(journal, 10);
+
+        journal.destroy();
+
+        MappedFlowJournal restarted = new MappedFlowJournal(properties, objectMapper);
+        RecoveredFlow flow = restarted.recoveredFlows().getFirst();
+        assertEquals(longFlow, flow.flowId());
+        assertEquals(1, flow.completed().size());
+        assertEquals("reserved-long", flow.completed().getFirst().result().asText());
+        restarted.recoveryCompleted();
+
+        // Segments stay while a flow started before them is open, and go once it is done
+        long open = restarted.flowStarted("open", List.of(new Echo()));
+        shortFlows(restarted, 20);
+        assertTrue(segmentFiles() > 2, "segments after an open flow's start are kept");
+        restarted.flowFinished(open);
+        shortFlows(restarted, 10);
+        assertTrue(segmentFiles() <= 2, "finished segments are deleted");
+        restarted.destroy();
+    }
+
+    private long segmentFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static void shortFlows(MappedFlowJournal journal, int count) {
+        for (int i = 0; i < count; i++) {
+            journal.flowFinished(journal.flowStarted("short", List.of(new Echo())));
+        }
+    }
+
+    private MappedFlowJournal recover(JournalProperties.RecoveryMode mode) {
+        JournalProperties properties = properties(mode);
+        MappedFlowJournal journal = new MappedFlowJournal(properties, objectMapper);
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.refresh();
+        new FlowRecovery(journal, engine(journal), properties, objectMapper, context).recover();
+        return journal;
+    }
+
+    private MappedFlowJournal journal(JournalProperties.RecoveryMode mode) {
+        return new MappedFlowJournal(properties(mode), objectMapper);
+    }
+
+    private JournalProperties properties(JournalProperties.RecoveryMode mode) {
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setRecovery(mode);
+        return properties;
+    }
+
+    private static LogicEngine engine(FlowJournal journal) {
+        return new LogicEngine(new ActionPipelineCompiler(new EnhancerRegistry(List.of())),
+                new TracingProperties(), List.of(), journal);
+    }
+
+    static class Reserve implements CompensatableAction<String, String> {
+        @Override
+        public String execute(String input) {
+            calls.add("execute " + input);
+            return "reserved-" + input;
+        }
+
+        @Override
+        public void compensate(String request, String result) {
+            calls.add("compensate " + result);
+        }
+    }
+
+    static class Echo implements LogicAction<String, String> {
+        @Override
+        public String execute(String input) {
+            calls.add("echo " + input);
+            return input;
+        }
+    }
+}
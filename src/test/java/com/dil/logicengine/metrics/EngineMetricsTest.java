@@ -0,0 +1,63 @@
+package com.dil.logicengine.metrics;
+
+import com.dil.logicengine.LogicEngine;
+import com.dil.logicengine.api.CompensatableAction;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.api.SimpleResponseBuilder;
+import com.dil.logicengine.config.TracingProperties;
+import com.dil.logicengine.enhancer.ActionPipelineCompiler;
+import com.dil.logicengine.enhancer.EnhancerRegistry;
+import com.dil.logicengine.journal.FlowJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EngineMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LogicEngine engine = new LogicEngine(
+            new ActionPipelineCompiler(new EnhancerRegistry(List.of(new MetricsEnhancer(registry)))),
+            new TracingProperties(),
+            List.of(new EngineMetrics(registry)), FlowJournal.NOOP);
+
+    @Test
+    void recordsActionTimingsErrorsAndCompensation() {
+        List<LogicAction<String, ?>> actions = List.of(new Reserve(), new Failing());
+
+        engine.executeActions("x", actions, new SimpleResponseBuilder<>());
+        engine.executeActions("x", List.of(new Reserve()), new SimpleResponseBuilder<>());
+
+        assertEquals(2, registry.get("logicengine.action.duration")
+                .tags("action", "Reserve", "outcome", "success").timer().count());
+        assertEquals(1, registry.get("logicengine.action.errors")
+                .tags("action", "Failing", "retryable", "false").counter().count());
+        assertEquals(1, registry.get("logicengine.compensation.runs").counter().count());
+        assertEquals(1, registry.get("logicengine.compensation.failures")
+                .tags("action", "Reserve").counter().count());
+        assertEquals(1, registry.get("logicengine.flow.duration")
+                .tags("flow", "executeActions", "outcome", "error").timer().count());
+        assertEquals(0, registry.get("logicengine.flows.in_flight").gauge().value());
+    }
+
+    static class Reserve implements CompensatableAction<String, String> {
+        @Override
+        public String execute(String input) {
+            return input;
+        }
+
+        @Override
+        public void compensate(String request, String result) {
+            throw new IllegalStateException("release failed");
+        }
+    }
+
+    static class Failing implements LogicAction<String, String> {
+        @Override
+        public String execute(String input) {
+            throw new IllegalStateException("boom");
+        }
+    }
+}
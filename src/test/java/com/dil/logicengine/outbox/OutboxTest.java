@@ -0,0 +1,175 @@
+package com.dil.logicengine.outbox;
+
+import com.dil.logicengine.LogicEngine;
+import com.dil.logicengine.api.InboxAction;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.api.OutboxAction;
+import com.dil.logicengine.api.OutgoingMessage;
+import com.dil.logicengine.api.SimpleResponseBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against the in-memory H2 database with an in-memory publisher standing in for Kafka.
+ */
+@SpringBootTest(properties = "logicengine.outbox.relay-enabled=false")
+class OutboxTest {
+
+    @Autowired
+    private LogicEngine logicEngine;
+    @Autowired
+    private OutboxRelay relay;
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+    @Autowired
+    private InboxMessageRepository inboxRepository;
+    @Autowired
+    private InMemoryPublisher publisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void reset() {
+        outboxRepository.deleteAll();
+        inboxRepository.deleteAll();
+        publisher.published.clear();
+        publisher.failing = false;
+    }
+
+    @Test
+    void stagedMessagesArePublishedByTheRelay() {
+        List<LogicAction<String, ?>> actions = List.of(new Announce());
+        logicEngine.executeActions("ada", actions, new SimpleResponseBuilder<>());
+
+        assertEquals(OutboxStatus.PENDING, outboxRepository.findAll().get(0).getStatus());
+
+        assertEquals(1, relay.relayBatch());
+
+        assertEquals(List.of("greeting.events:ada"), publisher.published);
+        assertEquals(OutboxStatus.SENT, outboxRepository.findAll().get(0).getStatus());
+    }
+
+    @Test
+    void failedActionStagesNothing() {
+        List<LogicAction<String, ?>> actions = List.of(new FailingAnnounce());
+        Map<String, Object> response = logicEngine.executeActions("ada", actions, new SimpleResponseBuilder<>());
+
+        assertTrue(response.containsKey("FailingAnnounce_error"));
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void inboxSkipsDuplicateMessages() {
+        Dedup action = new Dedup();
+        List<LogicAction<String, ?>> actions = List.of(action);
+
+        logicEngine.executeActions("message-1", actions, new SimpleResponseBuilder<>());
+        logicEngine.executeActions("message-1", actions, new SimpleResponseBuilder<>());
+        logicEngine.executeActions("message-2", actions, new SimpleResponseBuilder<>());
+
+        assertEquals(2, action.executions.get());
+        assertEquals(2, inboxRepository.count());
+    }
+
+    @Test
+    void duplicatesInsideACallersTransactionDoNotRollItBack() {
+        Dedup action = new Dedup();
+        List<LogicAction<String, ?>> actions = List.of(action, new Announce());
+        logicEngine.executeActions("message-1", actions, new SimpleResponseBuilder<>());
+
+        transactionTemplate.executeWithoutResult(status ->
+                logicEngine.executeActions("message-1", actions, new SimpleResponseBuilder<>()));
+
+        assertEquals(1, action.executions.get());
+        assertEquals(2, outboxRepository.count());
+    }
+
+    @Test
+    void failedSendsBackOffBeforeTheNextAttempt() {
+        logicEngine.executeActions("ada", List.of(new Announce()), new SimpleResponseBuilder<>());
+        publisher.failing = true;
+
+        assertEquals(0, relay.relayBatch());
+        OutboxMessage message = outboxRepository.findAll().get(0);
+        assertEquals(1, message.getAttempts());
+        assertTrue(message.getNextAttemptAt().isAfter(Instant.now()));
+
+        // Not picked up again until the backoff has passed
+        assertEquals(0, relay.relayBatch());
+        assertEquals(1, outboxRepository.findAll().get(0).getAttempts());
+    }
+
+    static class Announce implements OutboxAction<String, String> {
+        @Override
+        public String execute(String input) {
+            return "Hello " + input;
+        }
+
+        @Override
+        public List<OutgoingMessage> outgoing(String input, String result) {
+            return List.of(new OutgoingMessage("greeting.events", input, result));
+        }
+    }
+
+    static class FailingAnnounce extends Announce {
+        @Override
+        public String execute(String input) {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    static class Dedup implements InboxAction<String, String> {
+        final AtomicInteger executions = new AtomicInteger();
+
+        @Override
+        public String execute(String input) {
+            executions.incrementAndGet();
+            return input;
+        }
+
+        @Override
+        public String messageId(String input) {
+            return input;
+        }
+    }
+
+    static class InMemoryPublisher implements OutboxPublisher {
+        final List<String> published = new CopyOnWriteArrayList<>();
+        volatile boolean failing;
+
+        @Override
+        public CompletableFuture<?> publish(OutboxMessage message) {
+            if (failing) {
+                return CompletableFuture.failedFuture(new IllegalStateException("broker down"));
+            }
+            published.add(message.getTopic() + ":" + message.getMessageKey());
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        @Primary
+        InMemoryPublisher inMemoryPublisher() {
+            return new InMemoryPublisher();
+        }
+    }
+}
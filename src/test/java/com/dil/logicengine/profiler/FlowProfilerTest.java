@@ -0,0 +1,84 @@
+package com.dil.logicengine.profiler;
+
+import com.dil.logicengine.LogicEngine;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.api.SimpleResponseBuilder;
+import com.dil.logicengine.config.TracingProperties;
+import com.dil.logicengine.enhancer.ActionPipelineCompiler;
+import com.dil.logicengine.enhancer.EnhancerRegistry;
+import com.dil.logicengine.journal.FlowJournal;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlowProfilerTest {
+
+    private final ProfilerProperties properties = new ProfilerProperties();
+
+    @Test
+    void keepsOnlySlowFlowsWithTheirActionsInOrder() {
+        properties.setSlowFlowThreshold(Duration.ofMillis(20));
+        FlowProfiler profiler = new FlowProfiler(properties);
+        LogicEngine engine = engine(profiler);
+
+        engine.executeActions(1L, List.of(new Fast(), new Sleep()), new SimpleResponseBuilder<>());
+        engine.executeActions(0L, List.of(new Fast(), new Sleep()), new SimpleResponseBuilder<>());
+        engine.executeActionsAsync(30L, List.of(new Sleep(), new Fast()), new SimpleResponseBuilder<>()).join();
+
+        List<SlowFlow> slowest = profiler.getSlowestFlows(10);
+        assertEquals(1, slowest.size());
+        SlowFlow flow = slowest.get(0);
+        assertEquals("executeActionsAsync", flow.flow());
+        assertEquals(List.of("Sleep", "Fast"), flow.actions().stream().map(ActionSample::action).toList());
+        assertTrue(flow.actions().get(0).durationNanos() >= Duration.ofMillis(30).toNanos());
+        assertTrue(flow.actions().get(1).offsetNanos() >= flow.actions().get(0).offsetNanos());
+    }
+
+    @Test
+    void breaksDownEveryActionExecution() {
+        // Far above any flow here, even a cold first one, so none is captured as slow
+        properties.setSlowFlowThreshold(Duration.ofSeconds(10));
+        FlowProfiler profiler = new FlowProfiler(properties);
+        LogicEngine engine = engine(profiler);
+
+        for (long i = 0; i < 5; i++) {
+            engine.executeActions(i, List.of(new Fast(), new Sleep()), new SimpleResponseBuilder<>());
+        }
+
+        Map<String, FlowProfiler.ActionBreakdown> breakdown = profiler.getActionBreakdown();
+        assertEquals(5, breakdown.get("Fast").count());
+        assertEquals(5, breakdown.get("Sleep").count());
+        assertTrue(breakdown.get("Sleep").maxNanos() >= Duration.ofMillis(4).toNanos());
+        assertTrue(profiler.getSlowestFlows(10).isEmpty());
+    }
+
+    private static LogicEngine engine(FlowProfiler profiler) {
+        return new LogicEngine(new ActionPipelineCompiler(new EnhancerRegistry(List.of(
+                new ProfilingEnhancer(profiler, new ProfilerProperties())))),
+                new TracingProperties(), List.of(profiler), FlowJournal.NOOP);
+    }
+
+    static class Fast implements LogicAction<Long, Long> {
+        @Override
+        public Long execute(Long input) {
+            return input;
+        }
+    }
+
+    static class Sleep implements LogicAction<Long, Long> {
+        @Override
+        public Long execute(Long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.dil.logicengine.resilience;
+
+import com.dil.logicengine.LogicEngine;
+import com.dil.logicengine.api.ActionException;
+import com.dil.logicengine.api.CompensatableAction;
+import com.dil.logicengine.api.ExternalAction;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.api.SimpleResponseBuilder;
+import com.dil.logicengine.config.TracingProperties;
+import com.dil.logicengine.enhancer.ActionPipelineCompiler;
+import com.dil.logicengine.enhancer.EnhancerRegistry;
+import com.dil.logicengine.journal.FlowJournal;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilienceEnhancerTest {
+
+    private static final AtomicInteger compensations = new AtomicInteger();
+
+    private final ResilienceProperties properties = new ResilienceProperties();
+    private final CircuitBreakerRegistry registry = new CircuitBreakerRegistry(properties);
+    private final LogicEngine engine;
+
+    ResilienceEnhancerTest() {
+        ResilienceProperties.Settings settings = properties.getDefaults();
+        settings.setMinimumCalls(4);
+        settings.setFailureRateThreshold(50);
+        settings.setWaitInOpenState(Duration.ofMillis(50));
+        settings.setHalfOpenCalls(2);
+
+        engine = new LogicEngine(
+                new ActionPipelineCompiler(new EnhancerRegistry(List.of(new ResilienceEnhancer(properties, registry)))),
+                new TracingProperties(),
+                List.of(), FlowJournal.NOOP);
+    }
+
+    @Test
+    void opensOnFailuresFailsFastAndClosesAfterSuccessfulProbes() throws InterruptedException {
+        compensations.set(0);
+        Downstream downstream = new Downstream();
+        List<LogicAction<String, ?>> flow = List.of(new Reserve(), downstream);
+
+        downstream.healthy.set(false);
+        for (int i = 0; i < 4; i++) {
+            engine.executeActions("x", flow, new SimpleResponseBuilder<>());
+        }
+        CircuitBreaker breaker = registry.breakerFor("Downstream");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Map<String, Object> rejected = engine.executeActions("x", flow, new SimpleResponseBuilder<>());
+        assertEquals("Circuit breaker of Downstream is open", rejected.get("Downstream_error"));
+        assertEquals(4, downstream.calls.get());
+        assertEquals(5, compensations.get());
+
+        Thread.sleep(60);
+        downstream.healthy.set(true);
+        engine.executeActions("x", flow, new SimpleResponseBuilder<>());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        engine.executeActions("x", flow, new SimpleResponseBuilder<>());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void probesEndingInAnErrorReopenTheBreaker() throws InterruptedException {
+        Crashing crashing = new Crashing();
+        List<LogicAction<String, ?>> flow = List.of(crashing);
+        for (int i = 0; i < 4; i++) {
+            engine.executeActions("x", flow, new SimpleResponseBuilder<>());
+        }
+        CircuitBreaker breaker = registry.breakerFor("Crashing");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(60);
+        crashing.error.set(true);
+        assertThrows(LinkageError.class, () -> engine.executeActions("x", flow, new SimpleResponseBuilder<>()));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(properties.settingsFor("Crashing").getMaxConcurrentCalls(), breaker.getAvailableConcurrentCalls());
+
+        // The breaker is not wedged half-open: once the wait has passed again, fresh probes can close it
+        Thread.sleep(60);
+        crashing.healthy.set(true);
+        engine.executeActions("x", flow, new SimpleResponseBuilder<>());
+        engine.executeActions("x", flow, new SimpleResponseBuilder<>());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void businessFailuresDoNotOpenTheBreaker() {
+        List<LogicAction<String, ?>> flow = List.of(new Rejecting());
+        for (int i = 0; i < 8; i++) {
+            engine.executeActions("x", flow, new SimpleResponseBuilder<>());
+        }
+        CircuitBreaker breaker = registry.breakerFor("Rejecting");
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getBufferedCalls());
+    }
+
+    @Test
+    void halfOpenPermitsAreHandedOutOnlyOnce() throws InterruptedException {
+        CircuitBreaker breaker = registry.breakerFor("Probed");
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Thread.sleep(60);
+
+        int threads = 16;
+        AtomicInteger permitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            callers.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (breaker.tryAcquirePermission()) {
+                    permitted.incrementAndGet();
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        assertEquals(2, permitted.get());
+
+        // A probe ending in a business failure gives its permit back instead of wedging the breaker
+        breaker.onIgnored();
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    static class Rejecting implements ExternalAction<String, String> {
+        @Override
+        public String execute(String input) {
+            throw new ActionException(Rejecting.class, "insufficient funds", false);
+        }
+    }
+
+    static class Crashing implements ExternalAction<String, String> {
+        final AtomicBoolean healthy = new AtomicBoolean();
+        final AtomicBoolean error = new AtomicBoolean();
+
+        @Override
+        public String execute(String input) {
+            if (healthy.get()) {
+                return input;
+            }
+            if (error.getAndSet(false)) {
+                throw new LinkageError("probe crashed");
+            }
+            throw new IllegalStateException("503");
+        }
+    }
+
+    static class Downstream implements ExternalAction<String, String> {
+        final AtomicBoolean healthy = new AtomicBoolean(true);
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String execute(String input) {
+            calls.incrementAndGet();
+            if (!healthy.get()) {
+                throw new IllegalStateException("503");
+            }
+            return input;
+        }
+    }
+
+    static class Reserve implements CompensatableAction<String, String> {
+        @Override
+        public String execute(String input) {
+            return input;
+        }
+
+        @Override
+        public void compensate(String request, String result) {
+            compensations.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.dil.logicengine.retry;
+
+import com.dil.logicengine.LogicEngine;
+import com.dil.logicengine.api.ActionException;
+import com.dil.logicengine.api.AsyncLogicAction;
+import com.dil.logicengine.api.CompensatableAction;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.api.ResponseBuilder;
+import com.dil.logicengine.config.TracingProperties;
+import com.dil.logicengine.enhancer.ActionPipelineCompiler;
+import com.dil.logicengine.enhancer.EnhancerRegistry;
+import com.dil.logicengine.journal.FlowJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryEnhancerTest {
+
+    private static final AtomicInteger compensations = new AtomicInteger();
+
+    private final RetryProperties properties = new RetryProperties();
+    private final LogicEngine engine;
+
+    RetryEnhancerTest() {
+        RetryPolicy policy = new RetryPolicy();
+        policy.setMaxAttempts(3);
+        policy.setInitialBackoff(Duration.ofMillis(5));
+        policy.getRetryOn().add(IllegalStateException.class);
+        properties.getPolicies().put(RetryProperties.DEFAULT, policy);
+
+        engine = new LogicEngine(
+                new ActionPipelineCompiler(new EnhancerRegistry(List.of(
+                        new RetryEnhancer(properties, new SimpleMeterRegistry())))),
+                new TracingProperties(),
+                List.of(), FlowJournal.NOOP);
+    }
+
+    @Test
+    void retriesTransientFailuresBeforeTheFlowSeesThem() {
+        Flaky flaky = new Flaky(2);
+
+        Map<String, Object> response = engine.executeActions("x", List.of(flaky), new ErrorCapturingBuilder());
+
+        assertEquals("x", response.get("Flaky"));
+        assertEquals(3, flaky.attempts.get());
+    }
+
+    @Test
+    void compensatesOnlyAfterRetriesAreExhaustedAndReportsRetryable() {
+        compensations.set(0);
+        Flaky flaky = new Flaky(Integer.MAX_VALUE);
+
+        Map<String, Object> response = engine.executeActions("x", List.of(new Reserve(), flaky), new ErrorCapturingBuilder());
+
+        assertEquals(3, flaky.attempts.get());
+        assertEquals(1, compensations.get());
+        assertTrue(((ActionException) response.get("Flaky_error")).isRetryable());
+    }
+
+    @Test
+    void doesNotRetryPermanentFailures() {
+        Flaky permanent = new Flaky(Integer.MAX_VALUE, () -> new IllegalArgumentException("bad input"));
+
+        Map<String, Object> response = engine.executeActions("x", List.of(permanent), new ErrorCapturingBuilder());
+
+        assertEquals(1, permanent.attempts.get());
+        assertFalse(((ActionException) response.get("Flaky_error")).isRetryable());
+    }
+
+    @Test
+    void platformThreadsRetryWithTheBackoffCapped() {
+        RetryPolicy slow = new RetryPolicy();
+        slow.setMaxAttempts(3);
+        slow.setInitialBackoff(Duration.ofSeconds(30));
+        slow.getRetryOn().add(IllegalStateException.class);
+        properties.getPolicies().put("Flaky", slow);
+        properties.setPlatformThreadMaxBackoff(Duration.ofMillis(5));
+        Flaky flaky = new Flaky(2);
+
+        long started = System.nanoTime();
+        Map<String, Object> response = engine.executeActions("x", List.of(flaky), new ErrorCapturingBuilder());
+
+        assertFalse(Thread.currentThread().isVirtual());
+        assertEquals("x", response.get("Flaky"));
+        assertEquals(3, flaky.attempts.get());
+        assertTrue(System.nanoTime() - started < Duration.ofSeconds(5).toNanos());
+    }
+
+    @Test
+    void retriesAsyncActionsWithoutBlocking() {
+        AsyncFlaky flaky = new AsyncFlaky(2);
+
+        Map<String, Object> response = engine.executeActionsAsync("x", List.of(flaky), new ErrorCapturingBuilder()).join();
+
+        assertEquals("x", response.get("AsyncFlaky"));
+        assertEquals(3, flaky.attempts.get());
+    }
+
+    static class Flaky implements LogicAction<String, String> {
+        final AtomicInteger attempts = new AtomicInteger();
+        private final int failures;
+        private final Supplier<RuntimeException> error;
+
+        Flaky(int failures) {
+            this(failures, () -> new IllegalStateException("connection reset"));
+        }
+
+        Flaky(int failures, Supplier<RuntimeException> error) {
+            this.failures = failures;
+            this.error = error;
+        }
+
+        @Override
+        public String execute(String input) {
+            if (attempts.incrementAndGet() <= failures) {
+                throw error.get();
+            }
+            return input;
+        }
+    }
+
+    static class AsyncFlaky implements AsyncLogicAction<String, String> {
+        final AtomicInteger attempts = new AtomicInteger();
+        private final int failures;
+
+        AsyncFlaky(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public CompletionStage<String> executeAsync(String input) {
+            if (attempts.incrementAndGet() <= failures) {
+                return CompletableFuture.failedFuture(new ActionException(AsyncFlaky.class, "timeout", true));
+            }
+            return CompletableFuture.completedFuture(input);
+        }
+    }
+
+    static class Reserve implements CompensatableAction<String, String> {
+        @Override
+        public String execute(String input) {
+            return input;
+        }
+
+        @Override
+        public void compensate(String request, String result) {
+            compensations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Keeps the exception itself rather than its message, so tests can inspect it.
+     */
+    static class ErrorCapturingBuilder implements ResponseBuilder<String, Map<String, Object>> {
+        private final Map<String, Object> results = new HashMap<>();
+
+        @Override
+        public void addResult(Class<? extends LogicAction<String, ?>> actionType, Object result) {
+            results.put(actionType.getSimpleName(), result);
+        }
+
+        @Override
+        public void handleException(Class<? extends LogicAction<String, ?>> actionType, Exception exception) {
+            results.put(actionType.getSimpleName() + "_error", exception);
+        }
+
+        @Override
+        public Map<String, Object> build(String request) {
+            return results;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.dil.logicengine.serde;
+
+import com.dil.entity.Greeting;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.reflect.ReflectData;
+import org.apache.avro.reflect.ReflectDatumWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CachingAvroDeserializerTest {
+
+    private final CachingAvroDeserializer deserializer = new CachingAvroDeserializer();
+
+    @Test
+    void readsReflectEncodedPayloadsWithSharedReader() throws Exception {
+        Greeting first = deserializer.deserialize(encode(new Greeting(1, "ada", "Hello ada")), Greeting.class);
+        Greeting second = deserializer.deserialize(encode(new Greeting(2, "alan", "Hello alan")), Greeting.class);
+
+        assertEquals("ada", first.getName());
+        assertEquals("Hello alan", second.getMessage());
+        assertEquals(2, second.getId());
+    }
+
+    private static byte[] encode(Greeting greeting) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new ReflectDatumWriter<>(ReflectData.get().getSchema(Greeting.class)).write(greeting, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+}
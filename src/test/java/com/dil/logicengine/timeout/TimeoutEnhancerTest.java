@@ -0,0 +1,125 @@
+package com.dil.logicengine.timeout;
+
+import com.dil.logicengine.LogicEngine;
+import com.dil.logicengine.api.CompensatableAction;
+import com.dil.logicengine.api.LogicAction;
+import com.dil.logicengine.api.SimpleResponseBuilder;
+import com.dil.logicengine.config.TracingProperties;
+import com.dil.logicengine.enhancer.ActionPipelineCompiler;
+import com.dil.logicengine.enhancer.EnhancerRegistry;
+import com.dil.logicengine.journal.FlowJournal;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeoutEnhancerTest {
+
+    private static final AtomicInteger compensations = new AtomicInteger();
+
+    private final TimeoutProperties properties = new TimeoutProperties();
+    private final LogicEngine engine = new LogicEngine(
+            new ActionPipelineCompiler(new EnhancerRegistry(List.of(new TimeoutEnhancer(properties)))),
+            new TracingProperties(),
+            List.of(), FlowJournal.NOOP);
+
+    @Test
+    void deadlineIsCheckedBetweenStepsWithoutMovingOrCancellingTheAction() {
+        compensations.set(0);
+        Slow slow = new Slow();
+        Echo after = new Echo();
+
+        Map<String, Object> response = engine.executeActions("x", List.of(new Reserve(), slow, after),
+                new SimpleResponseBuilder<>(), Duration.ofMillis(20));
+
+        assertEquals(Thread.currentThread(), slow.thread);
+        assertEquals("x", response.get("Slow"));
+        assertTrue(response.containsKey("Echo_error"));
+        assertEquals(0, after.calls.get());
+        assertEquals(1, compensations.get());
+    }
+
+    @Test
+    void configuredTimeoutIsShortenedToTheDeadlineAndCancelsTheAction() throws InterruptedException {
+        properties.getActions().put("Hanging", Duration.ofSeconds(30));
+        Hanging hanging = new Hanging();
+
+        long start = System.nanoTime();
+        Map<String, Object> response = engine.executeActions("x", List.of(hanging, new Echo()),
+                new SimpleResponseBuilder<>(), Duration.ofMillis(100));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertEquals("Hanging timed out", response.get("Hanging_error"));
+        assertTrue(hanging.interrupted.await(2, TimeUnit.SECONDS));
+        assertFalse(response.containsKey("Echo"));
+    }
+
+    @Test
+    void perActionTimeoutAppliesWithoutADeadline() {
+        properties.getActions().put("Hanging", Duration.ofMillis(50));
+
+        Map<String, Object> response = engine.executeActions("x", List.of(new Hanging()), new SimpleResponseBuilder<>());
+
+        assertEquals("Hanging timed out", response.get("Hanging_error"));
+    }
+
+    static class Hanging implements LogicAction<String, String> {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public String execute(String input) {
+            try {
+                Thread.sleep(10_000);
+                return input;
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IllegalStateException("interrupted", e);
+            }
+        }
+    }
+
+    static class Slow implements LogicAction<String, String> {
+        volatile Thread thread;
+
+        @Override
+        public String execute(String input) {
+            thread = Thread.currentThread();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException("interrupted", e);
+            }
+            return input;
+        }
+    }
+
+    static class Echo implements LogicAction<String, String> {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String execute(String input) {
+            calls.incrementAndGet();
+            return input;
+        }
+    }
+
+    static class Reserve implements CompensatableAction<String, String> {
+        @Override
+        public String execute(String input) {
+            return input;
+        }
+
+        @Override
+        public void compensate(String request, String result) {
+            compensations.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.dil.service;
+
+import com.dil.action.GreeterAction;
+import com.dil.entity.Greeting;
+import com.dil.logicengine.LogicEngine;
+import com.dil.logicengine.annotations.LogicEngineListener;
+import com.dil.logicengine.api.ActionException;
+import com.dil.logicengine.config.TracingProperties;
+import com.dil.logicengine.deadletter.DeadLetterPublisher;
+import com.dil.logicengine.deadletter.RetryTopics;
+import com.dil.logicengine.enhancer.ActionEnhancer;
+import com.dil.logicengine.enhancer.ActionPipelineCompiler;
+import com.dil.logicengine.enhancer.EnhancerRegistry;
+import com.dil.logicengine.journal.FlowJournal;
+import com.dil.service.impl.DefaultGreeterService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GreeterEventListenerTest {
+
+    @Test
+    void failedGreetingsAreRoutedToTheFirstRetryTopic() throws Exception {
+        ActionEnhancer unavailable = metadata -> (action, input, next) -> {
+            throw new ActionException(metadata.getActionClass(), "greeter unavailable", true);
+        };
+        LogicEngine engine = new LogicEngine(new ActionPipelineCompiler(new EnhancerRegistry(List.of(unavailable))),
+                new TracingProperties(), List.of(), FlowJournal.NOOP);
+        GreeterEventListener listener = new GreeterEventListener(new DefaultGreeterService(engine, new GreeterAction()));
+        Greeting event = new Greeting();
+        event.setName("ada");
+
+        Exception failure = assertThrows(ActionException.class, () -> listener.handleGreeting(event));
+
+        MockProducer<String, byte[]> producer = new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+        DeadLetterPublisher publisher = new DeadLetterPublisher(
+                new KafkaTemplate<>(new MockProducerFactory<>(() -> producer)), new SimpleMeterRegistry());
+        RetryTopics topics = RetryTopics.of(GreeterEventListener.class
+                .getMethod("handleGreeting", Greeting.class).getAnnotation(LogicEngineListener.class));
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>("greeting.events", 0, 7L, "ada",
+                "{\"name\":\"ada\"}".getBytes(StandardCharsets.UTF_8));
+        publisher.forward(record, failure, DeadLetterPublisher.isRetryable(failure), topics);
+
+        ProducerRecord<String, byte[]> sent = producer.history().getFirst();
+        assertEquals("greeting.events-retry-0", sent.topic());
+        assertEquals(GreeterAction.class.getName(), new String(
+                sent.headers().lastHeader(DeadLetterPublisher.FAILED_ACTION_HEADER).value(), StandardCharsets.UTF_8));
+    }
+}